@@ -0,0 +1,18 @@
+package exe.tigrulya.bench;
+
+import exe.tigrulya.SolverId;
+import exe.tigrulya.generator.InputGenerators;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+public class BenchmarkInputs {
+    public static Path resolve(SolverId solverId, int scale) {
+        try {
+            return InputGenerators.resolve(solverId, scale);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to generate input for " + solverId + " at scale " + scale, e);
+        }
+    }
+}
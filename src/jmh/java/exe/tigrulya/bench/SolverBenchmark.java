@@ -0,0 +1,70 @@
+package exe.tigrulya.bench;
+
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and solve phases of every solver, measured separately.
+ * Run a single solver with {@code java -jar target/benchmarks.jar -p solver=day16.Task1 -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({
+        "day1.Task1", "day1.Task2", "day2.Task1", "day2.Task2",
+        "day3.Task1", "day3.Task2", "day4.Task1", "day4.Task2",
+        "day5.Task1", "day5.Task2", "day6.Task1", "day6.Task2",
+        "day7.Task1", "day7.Task2", "day8.Task1", "day8.Task2",
+        "day9.Task1", "day9.Task2", "day10.Task1", "day10.Task2",
+        "day11.Task1", "day11.Task2", "day12.Task1", "day12.Task2",
+        "day13.Task1", "day13.Task2", "day14.Task1", "day14.Task2",
+        "day15.Task1", "day15.Task2", "day16.Task1", "day16.Task2",
+        "day17.Task1", "day17.Task2", "day18.Task1", "day18.Task2",
+        "day19.Task1", "day19.Task2", "day20.Task1", "day20.Task2"
+    })
+    public String solver;
+
+    @Param("1")
+    public int scale;
+
+    private Solver<Object, Object> solverInstance;
+    private Path input;
+    private Object parsedInput;
+
+    @Setup
+    public void setup() throws IOException {
+        SolverId solverId = SolverId.parse(solver);
+        solverInstance = solverId.create();
+        input = BenchmarkInputs.resolve(solverId, scale);
+        parsedInput = solverInstance.parse(input);
+    }
+
+    @Benchmark
+    public Object parse() throws IOException {
+        return solverInstance.parse(input);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return solverInstance.solve(parsedInput);
+    }
+}
@@ -0,0 +1,430 @@
+package exe.tigrulya;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Byte-level reader over a memory-mapped input file.
+ * Numbers are parsed straight from the mapped bytes, so reading tokens allocates nothing.
+ * Files larger than a single mapping are read through a sliding window.
+ * Channels are read through a bounded buffer instead, which only grows to fit the longest line or grid.
+ */
+public class InputCursor implements AutoCloseable {
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    // tokens never span window borders: window is remapped when less than this is left
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ReadableByteChannel stream;
+    private final long size;
+    private final LineView lineView = new LineView();
+
+    private ByteBuffer window;
+    private boolean streamEnded;
+    private long windowStart;
+    private int safeLimit;
+    private int position;
+
+    private InputCursor(FileChannel channel, long size) throws IOException {
+        this.channel = channel;
+        this.stream = null;
+        this.size = size;
+        map(0);
+    }
+
+    private InputCursor(ReadableByteChannel stream) {
+        this.channel = null;
+        this.stream = stream;
+        this.size = -1;
+        this.window = ByteBuffer.allocate(STREAM_BUFFER_SIZE).flip();
+        refill();
+    }
+
+    private InputCursor(ByteBuffer buffer) {
+        this.channel = null;
+        this.stream = null;
+        this.size = buffer.limit();
+        this.window = buffer;
+        this.safeLimit = buffer.limit();
+    }
+
+    public static InputCursor open(Path path) throws IOException {
+        // resources inside a jar can't be mapped
+        if (path.getFileSystem() != FileSystems.getDefault()) {
+            return of(Files.readAllBytes(path));
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new InputCursor(channel, channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the input incrementally from {@code stream}, e.g. stdin or a pipe.
+     * The stream isn't closed together with the cursor.
+     */
+    public static InputCursor of(ReadableByteChannel stream) {
+        return new InputCursor(stream);
+    }
+
+    public static InputCursor of(byte[] bytes) {
+        return new InputCursor(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads the buffer from its start up to its limit, e.g. a mapped chunk of a bigger file.
+     */
+    public static InputCursor of(ByteBuffer buffer) {
+        return new InputCursor(buffer);
+    }
+
+    public static InputCursor of(String content) {
+        return of(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public long offset() {
+        return windowStart + position;
+    }
+
+    /**
+     * Total input size, -1 for streams.
+     */
+    public long size() {
+        return size;
+    }
+
+    public boolean hasRemaining() {
+        return ensureAvailable();
+    }
+
+    public byte peek() {
+        if (!ensureAvailable()) {
+            throw new NoSuchElementException("End of input at offset " + offset());
+        }
+        return window.get(position);
+    }
+
+    public byte next() {
+        byte value = peek();
+        ++position;
+        return value;
+    }
+
+    /**
+     * Skips everything up to the next number and tells whether there is one.
+     */
+    public boolean hasNextNumber() {
+        while (ensureAvailable()) {
+            byte value = window.get(position);
+            if (isDigit(value)
+                    || value == '-' && position + 1 < window.limit() && isDigit(window.get(position + 1))) {
+                return true;
+            }
+            ++position;
+        }
+        return false;
+    }
+
+    public long nextLong() {
+        if (!hasNextNumber()) {
+            throw new NoSuchElementException("No number left at offset " + offset());
+        }
+
+        boolean negative = window.get(position) == '-';
+        if (negative) {
+            ++position;
+        }
+
+        long value = 0;
+        int limit = window.limit();
+        byte digit;
+        while (position < limit && isDigit(digit = window.get(position))) {
+            value = value * 10 + (digit - '0');
+            ++position;
+        }
+
+        return negative ? -value : value;
+    }
+
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    /**
+     * Moves the cursor right after the next occurrence of {@code value}.
+     *
+     * @return false if the input ended before {@code value} was found
+     */
+    public boolean skipUntil(byte value) {
+        while (ensureAvailable()) {
+            if (window.get(position++) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean skipLine() {
+        return skipUntil((byte) '\n');
+    }
+
+    /**
+     * Skips spaces and tells whether the current line has no more tokens.
+     */
+    public boolean endOfLine() {
+        while (ensureAvailable()) {
+            byte value = window.get(position);
+            if (value == '\n') {
+                return true;
+            }
+            if (value != ' ' && value != '\t' && value != '\r') {
+                return false;
+            }
+            ++position;
+        }
+        return true;
+    }
+
+    /**
+     * Consumes an empty line if the cursor is at one. End of input counts as an empty line.
+     */
+    public boolean skipBlankLine() {
+        while (ensureAvailable() && window.get(position) == '\r') {
+            ++position;
+        }
+
+        if (!ensureAvailable()) {
+            return true;
+        }
+
+        if (window.get(position) == '\n') {
+            ++position;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the rest of the current line without copying it and moves the cursor to the next line.
+     * The returned view is reused and stays valid only until the next call to this cursor.
+     */
+    public CharSequence nextLine() {
+        if (!ensureAvailable()) {
+            throw new NoSuchElementException("End of input at offset " + offset());
+        }
+
+        int end = findLineEnd();
+        while (end == window.limit() && extendWindow()) {
+            end = findLineEnd();
+        }
+
+        int start = position;
+        position = Math.min(end + 1, window.limit());
+
+        int contentEnd = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+        lineView.reset(window, start, contentEnd - start);
+        return lineView;
+    }
+
+    /**
+     * Returns the rectangular block of lines starting at the cursor, up to the next empty line,
+     * without copying it. The cursor is moved past the block and its trailing empty line.
+     */
+    public GridView nextGrid() {
+        if (!ensureAvailable()) {
+            throw new NoSuchElementException("End of input at offset " + offset());
+        }
+
+        // whole grid has to fit into a single window
+        while (!hasGridEnd() && extendWindow()) {
+        }
+
+        int gridStart = position;
+        int firstLineEnd = findLineEnd();
+        int columns = firstLineEnd > gridStart && window.get(firstLineEnd - 1) == '\r'
+                ? firstLineEnd - gridStart - 1
+                : firstLineEnd - gridStart;
+        int stride = firstLineEnd - gridStart + 1;
+
+        int rows = 0;
+        int rowStart = gridStart;
+        while (columns > 0 && rowStart + columns <= window.limit()
+                && window.get(rowStart) != '\n' && window.get(rowStart) != '\r') {
+            ++rows;
+            rowStart += stride;
+        }
+
+        position = Math.min(rowStart, window.limit());
+        skipBlankLine();
+        return new GridView(window, gridStart, rows, columns, stride);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private boolean hasGridEnd() {
+        int limit = window.limit();
+        for (int i = position; i < limit - 1; ++i) {
+            if (window.get(i) == '\n' && (window.get(i + 1) == '\n'
+                    || window.get(i + 1) == '\r' && i + 2 < limit && window.get(i + 2) == '\n')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int findLineEnd() {
+        int limit = window.limit();
+        int end = position;
+        while (end < limit && window.get(end) != '\n') {
+            ++end;
+        }
+        return end;
+    }
+
+    private boolean ensureAvailable() {
+        if (position < safeLimit) {
+            return true;
+        }
+
+        extendWindow();
+        return position < window.limit();
+    }
+
+    /**
+     * Moves the window to start at the cursor and fills it with the following input.
+     *
+     * @return false if there is no input after the window or the window can't be moved any further
+     */
+    private boolean extendWindow() {
+        if (stream != null) {
+            if (streamEnded) {
+                return false;
+            }
+            refill();
+            return true;
+        }
+
+        if (channel == null || position == 0 || windowStart + window.limit() >= size) {
+            return false;
+        }
+        map(windowStart + position);
+        return true;
+    }
+
+    private void refill() {
+        window.position(position);
+        // nothing can be dropped from a full window, so it's grown to fit the current line or grid
+        if (window.remaining() == window.capacity()) {
+            window = ByteBuffer.allocate(window.capacity() * 2).put(window);
+        } else {
+            window.compact();
+        }
+
+        try {
+            while (window.hasRemaining() && !streamEnded) {
+                streamEnded = stream.read(window) < 0;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read input at offset " + offset(), e);
+        }
+
+        window.flip();
+        windowStart += position;
+        position = 0;
+        safeLimit = streamEnded
+                ? window.limit()
+                : window.limit() - MAX_TOKEN_LENGTH;
+    }
+
+    private void map(long start) {
+        try {
+            long length = Math.min(WINDOW_SIZE, size - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            windowStart = start;
+            position = 0;
+            safeLimit = start + length < size
+                    ? (int) length - MAX_TOKEN_LENGTH
+                    : (int) length;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to map input at offset " + start, e);
+        }
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    public record GridView(ByteBuffer buffer, int start, int rows, int columns, int stride) {
+        public byte get(int x, int y) {
+            return buffer.get(start + y * stride + x);
+        }
+
+        public int indexOf(byte value) {
+            for (int y = 0; y < rows; ++y) {
+                for (int x = 0; x < columns; ++x) {
+                    if (get(x, y) == value) {
+                        return y * columns + x;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static class LineView implements CharSequence {
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+
+        private void reset(ByteBuffer buffer, int start, int length) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int startIdx, int endIdx) {
+            return toString().substring(startIdx, endIdx);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package exe.tigrulya;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Parses line-oriented inputs on the common fork-join pool, numbers into primitive arrays and other lines
+ * into records. The file is split into chunks ending right after a newline, every chunk is mapped and read by its own
+ * {@link InputCursor}, and the results of the chunks are concatenated in input order.
+ * Chunks are mapped separately, so inputs aren't limited by the size of a single mapping,
+ * only the parsed values have to fit into arrays.
+ */
+public class ParallelLineParser {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 28;
+    // more chunks than threads, so a chunk of long lines doesn't hold back the rest
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Numbers of every line, row {@code i} is {@code values[offsets[i]]} until {@code values[offsets[i + 1]]}.
+     */
+    public record Rows(long[] values, int[] offsets) {
+        public int count() {
+            return offsets.length - 1;
+        }
+
+        public int start(int row) {
+            return offsets[row];
+        }
+
+        public int end(int row) {
+            return offsets[row + 1];
+        }
+    }
+
+    private ParallelLineParser() {
+    }
+
+    /**
+     * Reads lines of exactly {@code count} numbers each, e.g. the two lists of day 1.
+     *
+     * @return an array per column
+     */
+    public static long[][] columns(Path input, int count) throws IOException {
+        Rows rows = rows(input);
+        long[][] columns = new long[count][rows.count()];
+        for (int row = 0; row < rows.count(); ++row) {
+            if (rows.end(row) - rows.start(row) != count) {
+                throw new IllegalArgumentException("Expected " + count + " numbers on line " + (row + 1)
+                        + ", got " + (rows.end(row) - rows.start(row)));
+            }
+            for (int column = 0; column < count; ++column) {
+                columns[column][row] = rows.values[rows.start(row) + column];
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Reads lines of any number of numbers, e.g. the reports of day 2. Lines without numbers are skipped.
+     */
+    public static Rows rows(Path input) throws IOException {
+        List<Chunk> chunks = parseChunks(input, 0, ParallelLineParser::parseChunk);
+        return chunks.size() == 1 ? chunks.getFirst().toRows() : concat(chunks);
+    }
+
+    /**
+     * Reads a record per line from {@code from} on, e.g. the designs of day 19 after its towels.
+     * {@code reader} gets the cursor at the start of a line and has to consume the record up to its end of line,
+     * blank lines are skipped.
+     *
+     * @param from offset of a line start
+     */
+    public static <T> List<T> records(Path input, long from, Function<InputCursor, T> reader) throws IOException {
+        List<List<T>> chunks = parseChunks(input, from, cursor -> parseRecords(cursor, reader));
+        if (chunks.size() == 1) {
+            return chunks.getFirst();
+        }
+
+        int count = 0;
+        for (var chunk : chunks) {
+            count += chunk.size();
+        }
+        List<T> records = new ArrayList<>(count);
+        for (var chunk : chunks) {
+            records.addAll(chunk);
+        }
+        return records;
+    }
+
+    private static <C> List<C> parseChunks(Path input, long from, Function<InputCursor, C> parser)
+            throws IOException {
+        // resources inside a jar can't be mapped
+        if (input.getFileSystem() != FileSystems.getDefault()) {
+            byte[] bytes = Files.readAllBytes(input);
+            return List.of(parser.apply(InputCursor.of(ByteBuffer.wrap(bytes).position((int) from).slice())));
+        }
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, from);
+            Object[] chunks = new Object[bounds.length - 1];
+            if (chunks.length == 1) {
+                new ChunkTask<>(channel, bounds, parser, chunks, 0, 1).compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(new ChunkTask<>(channel, bounds, parser, chunks, 0, chunks.length));
+            }
+            @SuppressWarnings("unchecked")
+            List<C> parsed = (List<C>) Arrays.asList(chunks);
+            return parsed;
+        }
+    }
+
+    private static long[] chunkBounds(FileChannel channel, long from) throws IOException {
+        long size = channel.size() - from;
+        long chunkSize = Math.clamp(size / ((long) ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD),
+                MIN_CHUNK_SIZE, MAX_CHUNK_SIZE);
+        int count = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+        long[] bounds = new long[count + 1];
+        bounds[0] = from;
+        for (int i = 1; i < count; ++i) {
+            bounds[i] = nextLineStart(channel, Math.max(from + i * chunkSize, bounds[i - 1]));
+        }
+        bounds[count] = from + size;
+        return bounds;
+    }
+
+    /**
+     * @return the first line start at or after {@code position}
+     */
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        // starts one byte earlier, in case the position is already right after a newline
+        long offset = position - 1;
+        while (offset < channel.size()) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; ++i) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return channel.size();
+    }
+
+    private static Chunk parseChunk(InputCursor cursor) {
+        Chunk chunk = new Chunk(cursor.size() > 0 ? (int) Math.min(cursor.size() / 4, 1 << 20) : 16);
+        while (cursor.hasNextNumber()) {
+            do {
+                chunk.add(cursor.nextLong());
+            } while (!cursor.endOfLine());
+            chunk.endRow();
+        }
+        return chunk;
+    }
+
+    private static <T> List<T> parseRecords(InputCursor cursor, Function<InputCursor, T> reader) {
+        List<T> records = new ArrayList<>();
+        while (cursor.hasRemaining()) {
+            if (!cursor.skipBlankLine()) {
+                records.add(reader.apply(cursor));
+            }
+        }
+        return records;
+    }
+
+    private static Rows concat(List<Chunk> chunks) {
+        long valueCount = 0;
+        long rowCount = 0;
+        for (var chunk : chunks) {
+            valueCount += chunk.valueCount;
+            rowCount += chunk.rowCount;
+        }
+
+        long[] values = new long[Math.toIntExact(valueCount)];
+        int[] offsets = new int[Math.toIntExact(rowCount + 1)];
+        int valueBase = 0;
+        int rowBase = 0;
+        for (var chunk : chunks) {
+            System.arraycopy(chunk.values, 0, values, valueBase, chunk.valueCount);
+            for (int row = 0; row < chunk.rowCount; ++row) {
+                offsets[rowBase + row + 1] = valueBase + chunk.rowEnds[row];
+            }
+            valueBase += chunk.valueCount;
+            rowBase += chunk.rowCount;
+        }
+        return new Rows(values, offsets);
+    }
+
+    private static class Chunk {
+        private long[] values;
+        private int valueCount;
+        private int[] rowEnds = new int[16];
+        private int rowCount;
+
+        Chunk(int expectedValues) {
+            values = new long[Math.max(16, expectedValues)];
+        }
+
+        void add(long value) {
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[valueCount++] = value;
+        }
+
+        void endRow() {
+            if (rowCount == rowEnds.length) {
+                rowEnds = Arrays.copyOf(rowEnds, rowEnds.length * 2);
+            }
+            rowEnds[rowCount++] = valueCount;
+        }
+
+        Rows toRows() {
+            int[] offsets = new int[rowCount + 1];
+            System.arraycopy(rowEnds, 0, offsets, 1, rowCount);
+            return new Rows(Arrays.copyOf(values, valueCount), offsets);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class ChunkTask<C> extends RecursiveAction {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final Function<InputCursor, C> parser;
+        private final Object[] chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, long[] bounds, Function<InputCursor, C> parser, Object[] chunks,
+                  int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.parser = parser;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask<>(channel, bounds, parser, chunks, from, middle),
+                        new ChunkTask<>(channel, bounds, parser, chunks, middle, to));
+                return;
+            }
+
+            try {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, bounds[from], bounds[to] - bounds[from]);
+                chunks[from] = parser.apply(InputCursor.of(mapped));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to map input at offset " + bounds[from], e);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package exe.tigrulya;
+
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.ParseEvent;
+import exe.tigrulya.jfr.SolveEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Single puzzle part split into its parse and solve phases.
+ * Implementations must not modify the parsed input in {@link #solve},
+ * so the same input can be solved repeatedly.
+ */
+public interface Solver<I, R> {
+    I parse(Path input) throws IOException;
+
+    R solve(I input);
+
+    /**
+     * Parses and solves the input, emitting {@link ParseEvent} and {@link SolveEvent} while JFR is running.
+     */
+    default R run(Path input) throws IOException {
+        return solveRecorded(parseRecorded(input));
+    }
+
+    default I parseRecorded(Path input) throws IOException {
+        if (!Events.enabled()) {
+            return parse(input);
+        }
+
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        I parsed = parse(input);
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = name();
+            event.input = input.toString();
+            event.inputSize = Files.size(input);
+            event.commit();
+        }
+        return parsed;
+    }
+
+    default R solveRecorded(I input) {
+        if (!Events.enabled()) {
+            return solve(input);
+        }
+
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        try {
+            R result = solve(input);
+            event.succeeded = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.solver = name();
+                event.commit();
+            }
+        }
+    }
+
+    private String name() {
+        return getClass().getName().replace("exe.tigrulya.", "");
+    }
+}
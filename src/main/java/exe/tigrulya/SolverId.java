@@ -0,0 +1,74 @@
+package exe.tigrulya;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record SolverId(int day, int part) implements Comparable<SolverId> {
+    public static final int MAX_DAY = 25;
+    public static final int MAX_PART = 2;
+
+    public static SolverId parse(String name) {
+        String[] split = name.replace("day", "")
+                .split("\\.Task");
+        if (split.length != 2) {
+            throw new IllegalArgumentException("Wrong solver name: " + name);
+        }
+        return new SolverId(Integer.parseInt(split[0]), Integer.parseInt(split[1]));
+    }
+
+    public static List<SolverId> discover() {
+        List<SolverId> solvers = new ArrayList<>();
+        for (int day = 1; day <= MAX_DAY; ++day) {
+            for (int part = 1; part <= MAX_PART; ++part) {
+                SolverId id = new SolverId(day, part);
+                if (id.solverClass() != null) {
+                    solvers.add(id);
+                }
+            }
+        }
+        return solvers;
+    }
+
+    public String className() {
+        return "exe.tigrulya.day" + day + ".Task" + part;
+    }
+
+    public String inputResource() {
+        return "input/" + day + ".txt";
+    }
+
+    @SuppressWarnings("unchecked")
+    public Solver<Object, Object> create() {
+        Class<?> solverClass = solverClass();
+        if (solverClass == null) {
+            throw new IllegalArgumentException("Solver not found: " + this);
+        }
+
+        try {
+            return (Solver<Object, Object>) solverClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create solver " + this, e);
+        }
+    }
+
+    private Class<?> solverClass() {
+        try {
+            Class<?> solverClass = Class.forName(className());
+            return Solver.class.isAssignableFrom(solverClass) ? solverClass : null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public int compareTo(SolverId other) {
+        return day != other.day
+                ? Integer.compare(day, other.day)
+                : Integer.compare(part, other.part);
+    }
+
+    @Override
+    public String toString() {
+        return "day" + day + ".Task" + part;
+    }
+}
@@ -0,0 +1,13 @@
+package exe.tigrulya;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Puzzle part solved in a single pass over its input, keeping only the state the algorithm needs
+ * instead of the whole parsed input. Lets huge or generated inputs be piped in without staging them on disk,
+ * see {@link exe.tigrulya.runner.StreamingRunner}.
+ */
+public interface StreamingSolver<R> {
+    R solve(ReadableByteChannel input) throws IOException;
+}
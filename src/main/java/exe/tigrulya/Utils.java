@@ -1,7 +1,10 @@
 package exe.tigrulya;
 
 import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.util.Map;
 
 public class Utils {
     public static Path getResource(String name) {
@@ -9,9 +12,22 @@ public class Utils {
             URI uri = Utils.class.getClassLoader()
                     .getResource(name)
                     .toURI();
+
+            // resources packed into a jar, e.g. benchmarks.jar
+            if ("jar".equals(uri.getScheme())) {
+                ensureFileSystem(uri);
+            }
             return Path.of(uri);
         } catch (Exception e) {
             throw new IllegalArgumentException("File not found: " + name);
         }
     }
+
+    private static synchronized void ensureFileSystem(URI uri) throws Exception {
+        try {
+            FileSystems.getFileSystem(uri);
+        } catch (FileSystemNotFoundException e) {
+            FileSystems.newFileSystem(uri, Map.of());
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package exe.tigrulya.collections;
+
+final class Hashing {
+    static final float LOAD_FACTOR = 0.5f;
+    static final int MIN_CAPACITY = 16;
+
+    private Hashing() {
+    }
+
+    // packed coordinates differ mostly in the low bits of each half, so spread them over the whole int
+    static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    static int tableSize(int expectedSize) {
+        int size = MIN_CAPACITY;
+        while (size * LOAD_FACTOR < expectedSize) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,143 @@
+package exe.tigrulya.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap over int ids in {@code [0, capacity)} with long priorities.
+ * Every id is stored at most once, so lowering the priority of a queued id moves it in place
+ * instead of adding a duplicate entry.
+ */
+public class IndexedMinHeap {
+    private static final int ABSENT = -1;
+
+    private final int[] heap;
+    // position of each id in heap, ABSENT if the id isn't queued
+    private final int[] positions;
+    private final long[] priorities;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.priorities = new long[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return positions[id] != ABSENT;
+    }
+
+    public long priority(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Id " + id + " isn't queued");
+        }
+        return priorities[id];
+    }
+
+    /**
+     * Adds {@code id} or lowers its priority if it's already queued.
+     *
+     * @return false if {@code id} is already queued with the same or lower priority
+     */
+    public boolean offer(int id, long priority) {
+        int position = positions[id];
+        if (position == ABSENT) {
+            priorities[id] = priority;
+            heap[size] = id;
+            positions[id] = size;
+            siftUp(size++);
+            return true;
+        }
+
+        if (priority >= priorities[id]) {
+            return false;
+        }
+        priorities[id] = priority;
+        siftUp(position);
+        return true;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    public long peekPriority() {
+        return priorities[peek()];
+    }
+
+    public int poll() {
+        int top = peek();
+        positions[top] = ABSENT;
+
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int id = heap[position];
+        long priority = priorities[id];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = heap[position];
+        long priority = priorities[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int childPosition = 2 * position + 1;
+            int child = heap[childPosition];
+            int rightPosition = childPosition + 1;
+            if (rightPosition < size && priorities[heap[rightPosition]] < priorities[child]) {
+                childPosition = rightPosition;
+                child = heap[childPosition];
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            heap[position] = child;
+            positions[child] = position;
+            position = childPosition;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
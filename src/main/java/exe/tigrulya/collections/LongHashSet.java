@@ -0,0 +1,169 @@
+package exe.tigrulya.collections;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open addressing set of primitive longs with linear probing.
+ * 0 marks free slots in the table, so the 0 key itself is tracked by a separate flag.
+ */
+public class LongHashSet {
+    private long[] keys;
+    private int mask;
+    private boolean containsZero;
+    private int size;
+
+    public LongHashSet() {
+        this(Hashing.MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+
+        for (int slot = Hashing.mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the key was already present
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            ++size;
+            return true;
+        }
+
+        int slot = Hashing.mix(key) & mask;
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return false;
+            }
+        }
+
+        keys[slot] = key;
+        if (++size > keys.length * Hashing.LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the key wasn't present
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            --size;
+            return true;
+        }
+
+        for (int slot = Hashing.mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                shiftKeys(slot);
+                --size;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        if (containsZero) {
+            result[i++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    // backward shift deletion: moves the following keys of the probe chain into the freed slot
+    private void shiftKeys(int slot) {
+        while (true) {
+            int freed = slot;
+            long key;
+            while (true) {
+                slot = (slot + 1) & mask;
+                key = keys[slot];
+                if (key == 0) {
+                    keys[freed] = 0;
+                    return;
+                }
+
+                int home = Hashing.mix(key) & mask;
+                boolean canMove = freed <= slot
+                        ? freed >= home || home > slot
+                        : freed >= home && home > slot;
+                if (canMove) {
+                    break;
+                }
+            }
+            keys[freed] = key;
+        }
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        allocate(tableSize);
+        for (long key : oldKeys) {
+            if (key != 0) {
+                int slot = Hashing.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        mask = tableSize - 1;
+    }
+}
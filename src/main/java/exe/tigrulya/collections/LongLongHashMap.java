@@ -0,0 +1,205 @@
+package exe.tigrulya.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from primitive longs to primitive longs with linear probing.
+ * 0 marks free slots in the table, so the value of the 0 key is kept aside.
+ */
+public class LongLongHashMap {
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private boolean containsZero;
+    private long zeroValue;
+    private int size;
+
+    public LongLongHashMap() {
+        this(Hashing.MIN_CAPACITY);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? containsZero : keys[slot(key)] == key;
+    }
+
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return containsZero ? zeroValue : defaultValue;
+        }
+
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, long value) {
+        if (key == 0) {
+            if (!containsZero) {
+                containsZero = true;
+                ++size;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        int slot = slot(key);
+        values[slot] = value;
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            grow();
+        }
+    }
+
+    /**
+     * Adds {@code increment} to the value of the key, absent keys start from 0.
+     *
+     * @return the new value
+     */
+    public long addTo(long key, long increment) {
+        if (key == 0) {
+            if (!containsZero) {
+                containsZero = true;
+                zeroValue = 0;
+                ++size;
+            }
+            return zeroValue += increment;
+        }
+
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            return values[slot] += increment;
+        }
+
+        keys[slot] = key;
+        values[slot] = increment;
+        grow();
+        return increment;
+    }
+
+    /**
+     * @return false if the key wasn't present
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            --size;
+            return true;
+        }
+
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        shiftKeys(slot);
+        --size;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (containsZero) {
+            action.accept(0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; ++slot) {
+            if (keys[slot] != 0) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    public long[] keys() {
+        long[] result = new long[size];
+        int i = 0;
+        if (containsZero) {
+            result[i++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    // slot holding the key or the free slot where it would be inserted
+    private int slot(long key) {
+        int slot = Hashing.mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // backward shift deletion: moves the following entries of the probe chain into the freed slot
+    private void shiftKeys(int slot) {
+        while (true) {
+            int freed = slot;
+            long key;
+            while (true) {
+                slot = (slot + 1) & mask;
+                key = keys[slot];
+                if (key == 0) {
+                    keys[freed] = 0;
+                    return;
+                }
+
+                int home = Hashing.mix(key) & mask;
+                boolean canMove = freed <= slot
+                        ? freed >= home || home > slot
+                        : freed >= home && home > slot;
+                if (canMove) {
+                    break;
+                }
+            }
+            keys[freed] = key;
+            values[freed] = values[slot];
+        }
+    }
+
+    private void grow() {
+        if (++size <= keys.length * Hashing.LOAD_FACTOR) {
+            return;
+        }
+
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int oldSlot = 0; oldSlot < oldKeys.length; ++oldSlot) {
+            if (oldKeys[oldSlot] != 0) {
+                int slot = slot(oldKeys[oldSlot]);
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new long[tableSize];
+        mask = tableSize - 1;
+    }
+}
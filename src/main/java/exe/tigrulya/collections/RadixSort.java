@@ -0,0 +1,82 @@
+package exe.tigrulya.collections;
+
+import java.util.Arrays;
+
+/**
+ * LSD radix sort of primitive longs, a byte per pass.
+ * Counts of all bytes are taken in one pass over the input, so passes where every value has the same byte,
+ * like the high bytes of small numbers, are skipped without touching the values again.
+ * Needs a scratch array as large as the input, small arrays are left to {@link Arrays#sort(long[])}.
+ */
+public class RadixSort {
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int PASSES = Long.SIZE / BITS;
+    private static final int MIN_LENGTH = 1 << 10;
+
+    private RadixSort() {
+    }
+
+    public static void sort(long[] values) {
+        sort(values, values.length);
+    }
+
+    /**
+     * Sorts the first {@code length} values, e.g. of a buffer that isn't full.
+     */
+    public static void sort(long[] values, int length) {
+        if (length < MIN_LENGTH) {
+            Arrays.sort(values, 0, length);
+            return;
+        }
+
+        int[][] counts = new int[PASSES][BUCKETS];
+        for (int i = 0; i < length; ++i) {
+            long value = values[i];
+            // sign bit flipped, so negative numbers go before positive ones
+            long key = value ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < PASSES; ++pass) {
+                ++counts[pass][(int) (key >>> (pass * BITS)) & (BUCKETS - 1)];
+            }
+        }
+
+        long[] source = values;
+        long[] target = new long[length];
+        for (int pass = 0; pass < PASSES; ++pass) {
+            int[] offsets = counts[pass];
+            if (isSingleBucket(offsets, length)) {
+                continue;
+            }
+
+            int offset = 0;
+            for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+                int count = offsets[bucket];
+                offsets[bucket] = offset;
+                offset += count;
+            }
+
+            int shift = pass * BITS;
+            for (int i = 0; i < length; ++i) {
+                long value = source[i];
+                target[offsets[(int) ((value ^ Long.MIN_VALUE) >>> shift) & (BUCKETS - 1)]++] = value;
+            }
+
+            long[] sorted = target;
+            target = source;
+            source = sorted;
+        }
+
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, length);
+        }
+    }
+
+    private static boolean isSingleBucket(int[] counts, int length) {
+        for (int count : counts) {
+            if (count != 0) {
+                return count == length;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package exe.tigrulya.day1;
+
+import exe.tigrulya.collections.LongLongHashMap;
+
+/**
+ * Similarity score of two location lists kept up to date while ids are added to and removed from either of them.
+ * The score is the sum of {@code id * leftCount(id) * rightCount(id)}, so an update only changes the term
+ * of its own id and costs a couple of map lookups, whatever the size of the lists.
+ */
+public class SimilarityIndex {
+    private final LongLongHashMap leftCounts = new LongLongHashMap();
+    private final LongLongHashMap rightCounts = new LongLongHashMap();
+    private long score;
+
+    public long score() {
+        return score;
+    }
+
+    public void addLeft(long id) {
+        leftCounts.addTo(id, 1);
+        score += id * rightCounts.get(id, 0);
+    }
+
+    public void addRight(long id) {
+        rightCounts.addTo(id, 1);
+        score += id * leftCounts.get(id, 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the left list has no such id
+     */
+    public void removeLeft(long id) {
+        decrement(leftCounts, id, "left");
+        score -= id * rightCounts.get(id, 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the right list has no such id
+     */
+    public void removeRight(long id) {
+        decrement(rightCounts, id, "right");
+        score -= id * leftCounts.get(id, 0);
+    }
+
+    public long leftCount(long id) {
+        return leftCounts.get(id, 0);
+    }
+
+    public long rightCount(long id) {
+        return rightCounts.get(id, 0);
+    }
+
+    // ids that drop to zero are removed, so the maps only hold ids currently in the lists
+    private static void decrement(LongLongHashMap counts, long id, String list) {
+        long count = counts.get(id, 0);
+        if (count == 0) {
+            throw new IllegalArgumentException("No " + id + " in the " + list + " list");
+        }
+        if (count == 1) {
+            counts.remove(id);
+        } else {
+            counts.addTo(id, -1);
+        }
+    }
+}
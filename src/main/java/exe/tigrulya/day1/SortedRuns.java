@@ -0,0 +1,209 @@
+package exe.tigrulya.day1;
+
+import exe.tigrulya.collections.IndexedMinHeap;
+import exe.tigrulya.collections.RadixSort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Sorts a column of numbers within a fixed memory budget. Values are collected into a buffer, which is sorted
+ * and appended to a temp file as a run whenever it fills up, then the runs are merged back in order while reading,
+ * each of them read sequentially. Nothing is written to disk while all values fit into a single run.
+ * The buffer starts small and doubles up to the budget, so small inputs don't pay for the whole of it.
+ */
+class SortedRuns implements AutoCloseable {
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int MIN_READ_BUFFER_SIZE = 1 << 12;
+    private static final int INITIAL_RUN_LENGTH = 1 << 10;
+
+    private final long memoryBudget;
+    private final int maxRunLength;
+    private long[] run;
+    private int runSize;
+    private long size;
+
+    private Path file;
+    private FileChannel channel;
+    private ByteBuffer writeBuffer;
+    private long[] runEnds = new long[16];
+    private int runCount;
+
+    /**
+     * @param memoryBudget bytes for the run and the scratch array sorting it, later for the buffers of the merge
+     */
+    SortedRuns(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        this.maxRunLength = Math.clamp(memoryBudget / (2 * Long.BYTES), 1, Integer.MAX_VALUE - 8);
+        this.run = new long[Math.min(INITIAL_RUN_LENGTH, maxRunLength)];
+    }
+
+    void add(long value) {
+        if (runSize == run.length) {
+            if (run.length < maxRunLength) {
+                run = Arrays.copyOf(run, (int) Math.min(2L * run.length, maxRunLength));
+            } else {
+                spill();
+            }
+        }
+        run[runSize++] = value;
+        ++size;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean spilled() {
+        return runCount > 0;
+    }
+
+    /**
+     * Iterates over all added values in ascending order. Values can't be added afterwards.
+     */
+    PrimitiveIterator.OfLong sorted() {
+        if (!spilled()) {
+            RadixSort.sort(run, runSize);
+            return Arrays.stream(run, 0, runSize).iterator();
+        }
+
+        if (runSize > 0) {
+            spill();
+        }
+        // the merge buffers take over the memory of the run
+        run = null;
+
+        int readBufferSize = Math.clamp(memoryBudget / runCount / Long.BYTES * Long.BYTES,
+                MIN_READ_BUFFER_SIZE, Integer.MAX_VALUE - 8);
+        RunReader[] readers = new RunReader[runCount];
+        for (int i = 0; i < runCount; ++i) {
+            readers[i] = new RunReader(i == 0 ? 0 : runEnds[i - 1], runEnds[i], readBufferSize);
+        }
+        return new Merge(readers);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void spill() {
+        RadixSort.sort(run, runSize);
+        try {
+            if (channel == null) {
+                file = Files.createTempFile("day1-runs-", ".bin");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            }
+
+            for (int i = 0; i < runSize; ++i) {
+                if (!writeBuffer.hasRemaining()) {
+                    flush();
+                }
+                writeBuffer.putLong(run[i]);
+            }
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spill a run to " + file, e);
+        }
+
+        if (runCount == runEnds.length) {
+            runEnds = Arrays.copyOf(runEnds, runCount * 2);
+        }
+        runEnds[runCount] = (runCount == 0 ? 0 : runEnds[runCount - 1]) + (long) runSize * Long.BYTES;
+        ++runCount;
+        runSize = 0;
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private class RunReader {
+        private final ByteBuffer buffer;
+        private final long end;
+        private long position;
+
+        RunReader(long start, long end, int bufferSize) {
+            this.buffer = ByteBuffer.allocate((int) Math.min(bufferSize, end - start)).flip();
+            this.position = start;
+            this.end = end;
+        }
+
+        boolean hasNext() {
+            return buffer.hasRemaining() || position < end;
+        }
+
+        long next() {
+            if (!buffer.hasRemaining()) {
+                refill();
+            }
+            return buffer.getLong();
+        }
+
+        private void refill() {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            try {
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position + buffer.position());
+                    if (read < 0) {
+                        throw new IOException("Run ends at " + end + " past the end of " + file);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read a run from " + file, e);
+            }
+            position += buffer.flip().remaining();
+        }
+    }
+
+    private static class Merge implements PrimitiveIterator.OfLong {
+        private final RunReader[] readers;
+        // run heads by run index, the smallest of them is the next value
+        private final IndexedMinHeap heads;
+
+        Merge(RunReader[] readers) {
+            this.readers = readers;
+            this.heads = new IndexedMinHeap(readers.length);
+            for (int i = 0; i < readers.length; ++i) {
+                if (readers[i].hasNext()) {
+                    heads.offer(i, readers[i].next());
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public long nextLong() {
+            if (heads.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            long value = heads.peekPriority();
+            int run = heads.poll();
+            if (readers[run].hasNext()) {
+                heads.offer(run, readers[run].next());
+            }
+            return value;
+        }
+    }
+}
@@ -1,36 +1,90 @@
 package exe.tigrulya.day1;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
+import exe.tigrulya.collections.RadixSort;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.IntStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<Task1.Input, Long>, StreamingSolver<Long> {
+    // below it handing a list over to another thread costs more than sorting it
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+    // -Daoc.day1.sortMemory=<bytes> bounds the heap used by the streamed solve, lists beyond it are sorted on disk
+    private static final long DEFAULT_SORT_MEMORY = Long.getLong("aoc.day1.sortMemory", 64L << 20);
+
+    private final long sortMemory;
+
+    public Task1() {
+        this(DEFAULT_SORT_MEMORY);
+    }
+
+    public Task1(long sortMemory) {
+        this.sortMemory = sortMemory;
+    }
+
+    public record Input(long[] left, long[] right) {
+    }
+
     public static void main(String[] args) throws IOException {
-        List<Long> left = new ArrayList<>();
-        List<Long> right = new ArrayList<>();
-
-        try (var lines = Files.lines(getResource("input/1.txt"))) {
-            lines.map(line -> line.split("\\s+"))
-                    .forEach(numbers -> {
-                        left.add(Long.parseLong(numbers[0]));
-                        right.add(Long.parseLong(numbers[1]));
-                    });
-        }
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/1.txt")));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
+        long[][] columns = ParallelLineParser.columns(input, 2);
+        return new Input(columns[0], columns[1]);
+    }
 
-        System.out.println("Result: " + getSum(left, right));
+    @Override
+    public Long solve(Input input) {
+        return getSum(input.left.clone(), input.right.clone());
     }
 
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        try (var left = new SortedRuns(sortMemory / 2);
+             var right = new SortedRuns(sortMemory / 2);
+             var cursor = InputCursor.of(input)) {
+            while (cursor.hasNextNumber()) {
+                left.add(cursor.nextLong());
+                right.add(cursor.nextLong());
+            }
 
-    private static long getSum(List<Long> left, List<Long> right) {
-        left.sort(Long::compareTo);
-        right.sort(Long::compareTo);
-        return IntStream.range(0, left.size())
-                .mapToLong(i -> Math.abs(left.get(i) - right.get(i)))
-                .reduce(0L, Long::sum);
+            // both columns are merged in lockstep, so each spill file is read once
+            PrimitiveIterator.OfLong sortedLeft = left.sorted();
+            PrimitiveIterator.OfLong sortedRight = right.sorted();
+            long sum = 0;
+            while (sortedLeft.hasNext()) {
+                sum += Math.abs(sortedLeft.nextLong() - sortedRight.nextLong());
+            }
+            return sum;
+        }
     }
-}
 
+    private static long getSum(long[] left, long[] right) {
+        if (left.length < PARALLEL_SORT_THRESHOLD) {
+            RadixSort.sort(left);
+            RadixSort.sort(right);
+        } else {
+            ForkJoinTask<?> leftSort = ForkJoinPool.commonPool().submit(() -> RadixSort.sort(left));
+            RadixSort.sort(right);
+            leftSort.join();
+        }
+
+        long sum = 0;
+        for (int i = 0; i < left.length; ++i) {
+            sum += Math.abs(left[i] - right[i]);
+        }
+        return sum;
+    }
+}
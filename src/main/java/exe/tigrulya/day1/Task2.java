@@ -1,38 +1,56 @@
 package exe.tigrulya.day1;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
+import exe.tigrulya.collections.LongLongHashMap;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.IntStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
+public class Task2 implements Solver<Task2.Input, Long>, StreamingSolver<Long> {
+    public record Input(long[] left, LongLongHashMap counts) {
+    }
+
     public static void main(String[] args) throws IOException {
-        List<Long> left = new ArrayList<>();
-        Map<Long, Long> counts = new HashMap<>();
-
-        try (var lines = Files.lines(getResource("input/1.txt"))) {
-            lines.map(line -> line.split("\\s+"))
-                    .forEach(numbers -> {
-                        left.add(Long.parseLong(numbers[0]));
-                        counts.compute(Long.parseLong(numbers[1]), (key, val) -> Optional.ofNullable(val)
-                                .map(count -> count + 1)
-                                .orElse(1L));
-                    });
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/1.txt")));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
+        long[][] columns = ParallelLineParser.columns(input, 2);
+        LongLongHashMap counts = new LongLongHashMap();
+        for (long number : columns[1]) {
+            counts.addTo(number, 1);
         }
+        return new Input(columns[0], counts);
+    }
 
-        Long similarityScore = left.stream()
-                .map(num -> num * counts.getOrDefault(num, 0L))
-                .reduce(0L, Long::sum);
+    @Override
+    public Long solve(Input input) {
+        // with the whole input at hand counts of the right list are enough, the index is for the stream
+        long similarity = 0;
+        for (long number : input.left) {
+            similarity += number * input.counts.get(number, 0);
+        }
+        return similarity;
+    }
 
-        System.out.println("Result: " + similarityScore);
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        // only distinct ids are kept, so memory doesn't grow with the number of lines
+        SimilarityIndex index = new SimilarityIndex();
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasNextNumber()) {
+                index.addLeft(cursor.nextLong());
+                index.addRight(cursor.nextLong());
+            }
+        }
+        return index.score();
     }
 }
-
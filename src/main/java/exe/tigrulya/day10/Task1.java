@@ -2,109 +2,61 @@ package exe.tigrulya.day10;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.graph.Graph;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
 
-public class Task1 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
+public class Task1 implements Solver<Task1.Input, Long> {
+    public record Input(Grid field, int[] trailheads) {
     }
 
-    public record Field(List<List<Integer>> field) {
-        public Optional<Integer> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                .flatMap(row -> get(row, coordinates.x));
-        }
-
-        public List<Coordinates> getNext(Coordinates coordinates) {
-            Optional<Integer> currentHeight = get(coordinates);
-            return currentHeight.map(integer -> Stream.of(
-                        new Coordinates(0, 1),
-                        new Coordinates(1, 0),
-                        new Coordinates(0, -1),
-                        new Coordinates(-1, 0)
-                    ).map(diff -> diff.sum(coordinates))
-                    .filter(nextCoords -> isNext(nextCoords, integer))
-                    .toList())
-                .orElseGet(List::of);
-        }
-
-        private boolean isNext(Coordinates coordinates, int currentHeight) {
-            return get(coordinates)
-                .filter(value -> value == currentHeight + 1)
-                .isPresent();
-        }
-
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                .filter(ignore -> idx >= 0 && idx < values.size())
-                .map(ignore -> values.get(idx));
-        }
+    public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/10.txt")));
     }
 
-    public static void main(String[] args) throws IOException {
-        List<Coordinates> trailheads = new ArrayList<>();
-        List<List<Integer>> field = new ArrayList<>();
+    @Override
+    public Input parse(Path input) throws IOException {
+        Grid field = Grid.parse(input);
+        int[] trailheads = IntStream.range(0, field.size())
+            .filter(id -> field.get(id) == '0')
+            .toArray();
+        return new Input(field, trailheads);
+    }
 
-        int currentX = 0;
-        int currentY = 0;
+    @Override
+    public Long solve(Input input) {
+        return countScores(input.field, input.trailheads);
+    }
 
-        try (var lines = Files.lines(getResource("input/10.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                List<Integer> row = new ArrayList<>();
-                for (var ch : line.toCharArray()) {
-                    int numericValue = Character.getNumericValue(ch);
-                    row.add(numericValue);
-                    if (numericValue == 0) {
-                        trailheads.add(new Coordinates(currentX, currentY));
-                    }
-                    ++currentX;
+    private static long countScores(Grid field, int[] trailheads) {
+        Graph uphill = uphill(field);
+        GraphSearch search = GraphSearch.forCurrentThread(field.size(), "day10.Task1");
+        long scores = 0;
+        for (int trailhead : trailheads) {
+            search.bfs(uphill, trailhead, GraphSearch.NO_NODE);
+            for (int i = 0; i < search.reachedCount(); ++i) {
+                if (field.get(search.reached(i)) == '9') {
+                    ++scores;
                 }
-
-                field.add(row);
-                ++currentY;
-                currentX = 0;
             }
         }
-
-        long result = countScores(new Field(field), trailheads);
-        System.out.println("Result: " + result);
-    }
-
-    private static long countScores(Field field, List<Coordinates> trailheads) {
-        return trailheads.stream()
-            .mapToLong(trailhead -> trailsCount(field, new HashSet<>(), trailhead))
-            .sum();
+        return scores;
     }
 
-    private static long trailsCount(Field field, Set<Coordinates> handledEnds, Coordinates current) {
-        List<Coordinates> nextCoordinates = field.getNext(current);
-        if (nextCoordinates.isEmpty()) {
-            return field.get(current)
-                .filter(height -> !handledEnds.contains(current) && height == 9)
-                .map(ignore -> {
-                    handledEnds.add(current);
-                    return 1L;
-                })
-                .orElse(0L);
-        }
-
-        return nextCoordinates.stream()
-            .mapToLong(coord -> trailsCount(field, handledEnds, coord))
-            .sum();
+    static Graph uphill(Grid field) {
+        return (current, edges) -> {
+            byte height = field.get(current);
+            for (int direction = Grid.UP; direction <= Grid.LEFT; ++direction) {
+                int next = field.neighbour(current, direction);
+                if (field.get(next) == height + 1) {
+                    edges.edge(next, 1);
+                }
+            }
+        };
     }
 }
-
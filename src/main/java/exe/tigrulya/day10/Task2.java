@@ -2,102 +2,63 @@ package exe.tigrulya.day10;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
 
-public class Task2 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
+public class Task2 implements Solver<Task2.Input, Long> {
+    public record Input(Grid field, int[] trailheads) {
     }
 
-    public record Field(List<List<Integer>> field) {
-        public Optional<Integer> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                .flatMap(row -> get(row, coordinates.x));
-        }
-
-        public List<Coordinates> getNext(Coordinates coordinates) {
-            Optional<Integer> currentHeight = get(coordinates);
-            return currentHeight.map(integer -> Stream.of(
-                        new Coordinates(0, 1),
-                        new Coordinates(1, 0),
-                        new Coordinates(0, -1),
-                        new Coordinates(-1, 0)
-                    ).map(diff -> diff.sum(coordinates))
-                    .filter(nextCoords -> isNext(nextCoords, integer))
-                    .toList())
-                .orElseGet(List::of);
-        }
-
-        private boolean isNext(Coordinates coordinates, int currentHeight) {
-            return get(coordinates)
-                .filter(value -> value == currentHeight + 1)
-                .isPresent();
-        }
-
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                .filter(ignore -> idx >= 0 && idx < values.size())
-                .map(ignore -> values.get(idx));
-        }
+    public static void main(String[] args) throws IOException {
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/10.txt")));
     }
 
-    public static void main(String[] args) throws IOException {
-        List<Coordinates> trailheads = new ArrayList<>();
-        List<List<Integer>> field = new ArrayList<>();
+    @Override
+    public Input parse(Path input) throws IOException {
+        Grid field = Grid.parse(input);
+        int[] trailheads = IntStream.range(0, field.size())
+            .filter(id -> field.get(id) == '0')
+            .toArray();
+        return new Input(field, trailheads);
+    }
 
-        int currentX = 0;
-        int currentY = 0;
+    @Override
+    public Long solve(Input input) {
+        return countScores(input.field, input.trailheads);
+    }
 
-        try (var lines = Files.lines(getResource("input/10.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                List<Integer> row = new ArrayList<>();
-                for (var ch : line.toCharArray()) {
-                    int numericValue = Character.getNumericValue(ch);
-                    row.add(numericValue);
-                    if (numericValue == 0) {
-                        trailheads.add(new Coordinates(currentX, currentY));
-                    }
-                    ++currentX;
-                }
+    private static long countScores(Grid field, int[] trailheads) {
+        // all trailheads are at height 0, so the search reaches cells in height order
+        // and every trail into a cell is counted before the cell itself is expanded
+        GraphSearch search = GraphSearch.forCurrentThread(field.size(), "day10.Task2")
+            .bfs(Task1.uphill(field), trailheads, GraphSearch.NO_NODE);
 
-                field.add(row);
-                ++currentY;
-                currentX = 0;
-            }
+        long[] trails = new long[field.size()];
+        for (int trailhead : trailheads) {
+            trails[trailhead] = 1;
         }
 
-        long result = countScores(new Field(field), trailheads);
-        System.out.println("Result: " + result);
-    }
-
-    private static long countScores(Field field, List<Coordinates> trailheads) {
-        return trailheads.stream()
-            .mapToLong(trailhead -> trailsCount(field, trailhead))
-            .sum();
-    }
+        long scores = 0;
+        for (int i = 0; i < search.reachedCount(); ++i) {
+            int current = search.reached(i);
+            byte height = field.get(current);
+            if (height == '9') {
+                scores += trails[current];
+                continue;
+            }
 
-    private static long trailsCount(Field field, Coordinates current) {
-        List<Coordinates> nextCoordinates = field.getNext(current);
-        if (nextCoordinates.isEmpty()) {
-            return field.get(current)
-                .filter(height -> height == 9)
-                .map(ignore -> 1L)
-                .orElse(0L);
+            for (int direction = Grid.UP; direction <= Grid.LEFT; ++direction) {
+                int next = field.neighbour(current, direction);
+                if (field.get(next) == height + 1) {
+                    trails[next] += trails[current];
+                }
+            }
         }
-
-        return nextCoordinates.stream()
-            .mapToLong(coord -> trailsCount(field, coord))
-            .sum();
+        return scores;
     }
 }
-
@@ -1,34 +1,51 @@
 package exe.tigrulya.day11;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.IterationEvent;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<List<Long>, Integer> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/11.txt"))) {
-            List<Long> stones = lines
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/11.txt")));
+    }
+
+    @Override
+    public List<Long> parse(Path input) throws IOException {
+        try (var lines = Files.lines(input)) {
+            return lines
                     .flatMap(line -> Arrays.stream(line.split(" ")))
                     .map(Long::parseLong)
                     .toList();
-
-            List<Long> newStones = blinkNTimes(stones, 25);
-            System.out.println("Result: " + newStones.size());
         }
     }
 
+    @Override
+    public Integer solve(List<Long> stones) {
+        return blinkNTimes(stones, 25).size();
+    }
+
     private static List<Long> blinkNTimes(List<Long> stones, int n) {
         List<Long> newStones = stones;
 
         int blinksLeft = n;
         while (blinksLeft-- > 0) {
+            IterationEvent event = Events.beginIteration();
             newStones = blinkInPlace(newStones);
-            System.out.println("Blink #" + (n - blinksLeft));
-            System.out.println("Size: " + newStones.size());
+            Events.commitIteration(event, "day11.Task1", n - blinksLeft, newStones.size());
+            if (Trace.DEBUG) {
+                Trace.debug("Blink #%d size: %d", n - blinksLeft, newStones.size());
+            }
         }
 
         return newStones;
@@ -1,7 +1,13 @@
 package exe.tigrulya.day11;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.IterationEvent;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -12,20 +18,27 @@ import java.util.stream.Collectors;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
-
+public class Task2 implements Solver<List<Long>, Long> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/11.txt"))) {
-            List<Long> stones = lines
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/11.txt")));
+    }
+
+    @Override
+    public List<Long> parse(Path input) throws IOException {
+        try (var lines = Files.lines(input)) {
+            return lines
                     .flatMap(line -> Arrays.stream(line.split(" ")))
                     .map(Long::parseLong)
                     .toList();
-
-            long stoneCount = blinkNTimes(stones, 75);
-            System.out.println("Result: " + stoneCount);
         }
     }
 
+    @Override
+    public Long solve(List<Long> stones) {
+        return blinkNTimes(stones, 75);
+    }
+
     private static long blinkNTimes(List<Long> stones, int blinks) {
         Map<Long, Long> stoneCounts = stones.stream()
                 .collect(Collectors.toMap(
@@ -35,9 +48,13 @@ public class Task2 {
                 ));
 
         for (int blink = 0; blink < blinks; ++blink) {
+            IterationEvent event = Events.beginIteration();
             stoneCounts = blink(stoneCounts);
+            Events.commitIteration(event, "day11.Task2", blink + 1, stoneCounts.size());
 
-            System.out.println("Blink #" + (blink + 1) + " size: " + countStones(stoneCounts));
+            if (Trace.DEBUG) {
+                Trace.debug("Blink #%d size: %d", blink + 1, countStones(stoneCounts));
+            }
         }
 
         return countStones(stoneCounts);
@@ -1,113 +1,66 @@
 package exe.tigrulya.day12;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.nio.file.Path;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
+public class Task1 implements Solver<Grid, Long> {
+    public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/12.txt")));
     }
 
-    public record Field(List<List<Character>> field) {
-        public int rows() {
-            return field.size();
-        }
-
-        public int columns() {
-            return field.getFirst().size();
-        }
-
-        public Optional<Character> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x));
-        }
-
-        public List<Coordinates> samePlants(Coordinates coordinates) {
-            Optional<Character> currentPlant = get(coordinates);
-            return currentPlant.map(plant -> Stream.of(
-                                    new Coordinates(0, 1),
-                                    new Coordinates(1, 0),
-                                    new Coordinates(0, -1),
-                                    new Coordinates(-1, 0)
-                            ).map(diff -> diff.sum(coordinates))
-                            .filter(nextCoords -> get(nextCoords)
-                                    .filter(neighbor -> neighbor == plant)
-                                    .isPresent())
-                            .toList())
-                    .orElseGet(List::of);
-        }
-
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
-        }
+    @Override
+    public Grid parse(Path input) throws IOException {
+        return Grid.parse(input);
     }
 
-    public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/12.txt"))) {
-            List<List<Character>> field = lines.map(line -> line.chars()
-                            .mapToObj(intCh -> (char) intCh)
-                            .toList())
-                    .toList();
-
-
-            long result = findAreaPrices(new Field(field));
-            System.out.println("Result: " + result);
-        }
+    @Override
+    public Long solve(Grid field) {
+        return findAreaPrices(field);
     }
 
-    private static long findAreaPrices(Field field) {
-        Set<Coordinates> newCoordinates = IntStream.range(0, field.rows())
-                .boxed()
-                .flatMap(y -> IntStream.range(0, field.columns())
-                        .mapToObj(x -> new Coordinates(x, y)))
-                .collect(Collectors.toSet());
+    private static long findAreaPrices(Grid field) {
+        boolean[] visited = new boolean[field.size()];
+        int[] plantsQueue = new int[field.size()];
 
         long areaPrices = 0;
-        while (!newCoordinates.isEmpty()) {
-            Coordinates nextPlant = newCoordinates.stream().findAny().get();
-            areaPrices += findAreaPrice(field, nextPlant, newCoordinates);
+        for (int id = 0; id < field.size(); ++id) {
+            if (!visited[id] && !field.isBorder(id)) {
+                areaPrices += findAreaPrice(field, id, visited, plantsQueue);
+            }
         }
         return areaPrices;
     }
 
-    private static long findAreaPrice(Field field, Coordinates coordinates, Set<Coordinates> newCoordinates) {
-        Deque<Coordinates> plantsQueue = new ArrayDeque<>();
-        plantsQueue.addFirst(coordinates);
+    private static long findAreaPrice(Grid field, int start, boolean[] visited, int[] plantsQueue) {
+        byte plant = field.get(start);
+        int head = 0;
+        int tail = 0;
+        plantsQueue[tail++] = start;
+        visited[start] = true;
 
-        long plantsCount = 0;
         long fencesCount = 0;
 
-        while (!plantsQueue.isEmpty()) {
-            var plantCoords = plantsQueue.pollFirst();
-            ++plantsCount;
-
-            List<Coordinates> samePlants = field.samePlants(plantCoords);
-            fencesCount += 4 - samePlants.size();
-
-            newCoordinates.remove(plantCoords);
-            samePlants.stream()
-                    .filter(newCoordinates::contains)
-                    .forEach(plant -> {
-                        plantsQueue.addLast(plant);
-                        newCoordinates.remove(plant);
-                    });
+        while (head < tail) {
+            int plantId = plantsQueue[head++];
+
+            for (int direction = Grid.UP; direction <= Grid.LEFT; ++direction) {
+                int neighbour = field.neighbour(plantId, direction);
+                if (field.get(neighbour) != plant) {
+                    ++fencesCount;
+                } else if (!visited[neighbour]) {
+                    visited[neighbour] = true;
+                    plantsQueue[tail++] = neighbour;
+                }
+            }
         }
 
+        long plantsCount = tail;
         return plantsCount * fencesCount;
     }
 }
-
@@ -2,20 +2,24 @@ package exe.tigrulya.day13;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
-public class Task1 {
+public class Task1 implements Solver<List<Task1.Rule>, Long>, StreamingSolver<Long> {
     public record LongVector(long x, long y) {
     }
 
-    private record Rule(Vector aButtonShift,
-                        Vector bButtonShift,
-                        Vector prizeLocation) {}
+    public record Rule(Vector aButtonShift,
+                       Vector bButtonShift,
+                       Vector prizeLocation) {}
 
     public record Vector(double x, double y) {
         private static final double DELTA = 1e-3;
@@ -82,38 +86,63 @@ public class Task1 {
 
 
     public static void main(String[] args) throws IOException {
-        List<Rule> rules = new ArrayList<>();
-        try (var lines = Files.lines(getResource("input/13.txt"))) {
-            Iterator<String> linesIterable = lines.iterator();
-            while (linesIterable.hasNext()) {
-                Vector aButtonRule = parseButton(linesIterable.next(), "A");
-                Vector bButtonRule = parseButton(linesIterable.next(), "B");
-                Vector prizeRule = parsePrize(linesIterable.next());
-
-                if (linesIterable.hasNext()) {
-                    linesIterable.next();
-                }
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/13.txt")));
+    }
 
-                rules.add(new Rule(aButtonRule, bButtonRule, prizeRule));
-            }
+    @Override
+    public List<Rule> parse(Path input) throws IOException {
+        // a line of two numbers per button and prize
+        long[][] columns = ParallelLineParser.columns(input, 2);
+        long[] xs = columns[0];
+        long[] ys = columns[1];
+        if (xs.length % 3 != 0) {
+            throw new IllegalArgumentException("Expected 3 lines per machine, got " + xs.length + " lines");
+        }
+
+        List<Rule> rules = new ArrayList<>(xs.length / 3);
+        for (int i = 0; i < xs.length; i += 3) {
+            Vector aButtonRule = new Vector(xs[i], ys[i]);
+            Vector bButtonRule = new Vector(xs[i + 1], ys[i + 1]);
+            Vector prizeRule = prize(xs[i + 2], ys[i + 2]);
+
+            rules.add(new Rule(aButtonRule, bButtonRule, prizeRule));
+        }
 
-            long result = requiredTokens(rules);
-            System.out.println("Result: " + result);
+        return rules;
+    }
+
+    @Override
+    public Long solve(List<Rule> rules) {
+        return requiredTokens(rules);
+    }
+
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        long tokens = 0;
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasNextNumber()) {
+                Rule rule = new Rule(parseButton(cursor), parseButton(cursor), parsePrize(cursor));
+                tokens += getSolution(rule)
+                    .map(v -> v.x * 3 + v.y)
+                    .orElse(0L);
+            }
         }
+        return tokens;
+    }
+
+    private static Vector parseButton(InputCursor cursor) {
+        return new Vector(cursor.nextLong(), cursor.nextLong());
     }
 
-    private static Vector parseButton(String rule, String button) {
-        String[] split = rule.replaceAll("(Button " + button + ":|X\\+| |Y\\+)", "")
-            .split(",");
-        return new Vector(Double.parseDouble(split[0]), Double.parseDouble(split[1]));
+    private static Vector parsePrize(InputCursor cursor) {
+        return prize(cursor.nextLong(), cursor.nextLong());
     }
 
-    private static Vector parsePrize(String rule) {
-        String[] split = rule.replaceAll("(Prize:|X=| |Y=)", "")
-            .split(",");
+    private static Vector prize(long x, long y) {
         return new Vector(
-            Double.parseDouble(split[0]),
-            Double.parseDouble(split[1])
+            x,
+            y
         );
     }
 
@@ -4,6 +4,7 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 public class ListToImage {
@@ -35,6 +36,24 @@ public class ListToImage {
         }
     }
 
+    public static void saveFieldAsImage(Task2.Field field, Path filePath) {
+        BufferedImage image = new BufferedImage(field.columns(), field.rows(), BufferedImage.TYPE_INT_RGB);
+
+        for (int y = 0; y < field.rows(); y++) {
+            for (int x = 0; x < field.columns(); x++) {
+                long value = field.getRobotsCount(x, y);
+                int color = (value == 0L) ? 0x000000 : 0xFFFFFF; // Black for 0, White for 1
+                image.setRGB(x, y, color);
+            }
+        }
+
+        try {
+            ImageIO.write(image, "png", filePath.toFile());
+        } catch (IOException e) {
+            System.err.println("Error while saving the image: " + e.getMessage());
+        }
+    }
+
     public static void main(String[] args) {
         // Example data: a 5x5 list of lists
         List<List<Integer>> data = List.of(
@@ -1,16 +1,21 @@
 package exe.tigrulya.day14;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.IterationEvent;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<List<Task1.Robot>, Long> {
     public record Coordinates(int x, int y) {
         public Coordinates sum(Coordinates other) {
             return new Coordinates(x + other.x, y + other.y);
@@ -51,12 +56,16 @@ public class Task1 {
         }
 
         public long safetyScore(int seconds) {
+            int totalSeconds = seconds;
             while (seconds-- > 0) {
+                IterationEvent event = Events.beginIteration();
                 for (var robot : robots) {
                     robot.position = move(robot.position, robot.shift);
                 }
-                System.out.println("================= Iteration: " + seconds);
-                System.out.println(this);
+                Events.commitIteration(event, "day14.Task1", totalSeconds - seconds, robots.size());
+                if (Trace.TRACE) {
+                    Trace.trace("================= Iteration: %d%n%s", seconds, this);
+                }
             }
 
             return safetyScore();
@@ -117,25 +126,29 @@ public class Task1 {
 
 
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/14.txt"))) {
-            List<Robot> robots = lines.map(Task1::parseRobot)
-                    .toList();
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/14.txt")));
+    }
 
-            Field field = new Field(getBaseField(103, 101), robots);
+    @Override
+    public List<Robot> parse(Path input) throws IOException {
+        return ParallelLineParser.records(input, 0, Task1::parseRobot);
+    }
 
-            long result = field.safetyScore(3000);
-            System.out.println("Result: " + result);
-        }
+    @Override
+    public Long solve(List<Robot> robots) {
+        List<Robot> movingRobots = robots.stream()
+                .map(robot -> new Robot(robot.position, robot.shift))
+                .toList();
+
+        Field field = new Field(getBaseField(103, 101), movingRobots);
+        return field.safetyScore(3000);
     }
 
-    public static final Pattern ROBOTS_PATTERN = Pattern.compile("-?\\d+,-?\\d+");
-    public static Robot parseRobot(String rawRobot) {
-        List<MatchResult> matchResult = ROBOTS_PATTERN.matcher(rawRobot).results().toList();
-        String[] rawPosition = matchResult.get(0).group().split(",");
-        String[] rawShift = matchResult.get(1).group().split(",");
+    public static Robot parseRobot(InputCursor cursor) {
         return new Robot(
-                new Coordinates(Integer.parseInt(rawPosition[0]), Integer.parseInt(rawPosition[1])),
-                new Coordinates(Integer.parseInt(rawShift[0]), Integer.parseInt(rawShift[1]))
+                new Coordinates(cursor.nextInt(), cursor.nextInt()),
+                new Coordinates(cursor.nextInt(), cursor.nextInt())
         );
     }
 
@@ -1,21 +1,26 @@
 package exe.tigrulya.day14;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.IterationEvent;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
+public class Task2 implements Solver<List<Task2.Robot>, Long> {
+    // -Daoc.day14.images=<dir> saves every second as a png, image classes aren't even loaded otherwise
+    private static final String IMAGES_DIR = System.getProperty("aoc.day14.images");
+
     public record Coordinates(int x, int y) {
         public Coordinates sum(Coordinates other) {
             return new Coordinates(x + other.x, y + other.y);
@@ -67,21 +72,28 @@ public class Task2 {
             int minEntropyIdx = 0;
 
             PriorityQueue<EntropyPair> entropies = new PriorityQueue<>(Comparator.reverseOrder());
+            int totalSeconds = seconds;
             while (seconds-- > 0) {
+                IterationEvent event = Events.beginIteration();
                 for (var robot : robots) {
                     robot.position = move(robot.position, robot.shift);
                 }
 
                 double entropy = entropy();
+                Events.commitIteration(event, "day14.Task2", totalSeconds - seconds, robots.size());
                 if (entropy > maxEntropy) {
                     maxEntropy = entropy;
                     minEntropyIdx = seconds;
                 }
                 entropies.add(new EntropyPair(entropy, seconds));
-//                saveImage(this, seconds, columns, rows);
+                if (IMAGES_DIR != null) {
+                    ListToImage.saveFieldAsImage(this, Path.of(IMAGES_DIR, seconds + ".png"));
+                }
             }
 
-            System.out.println("entropy min: " + minEntropyIdx);
+            if (Trace.DEBUG) {
+                Trace.debug("entropy min: %d", minEntropyIdx);
+            }
 
             return safetyScore();
         }
@@ -154,26 +166,29 @@ public class Task2 {
 
 
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/14.txt"))) {
-            List<Robot> robots = lines.map(Task2::parseRobot)
-                    .toList();
-
-            Field field = new Field(getBaseField(103, 101), robots);
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/14.txt")));
+    }
 
-            long result = field.safetyScore(103 * 101);
-            System.out.println("Result: " + result);
-        }
+    @Override
+    public List<Robot> parse(Path input) throws IOException {
+        return ParallelLineParser.records(input, 0, Task2::parseRobot);
     }
 
-    public static final Pattern ROBOTS_PATTERN = Pattern.compile("-?\\d+,-?\\d+");
+    @Override
+    public Long solve(List<Robot> robots) {
+        List<Robot> movingRobots = robots.stream()
+                .map(robot -> new Robot(robot.position, robot.shift))
+                .toList();
+
+        Field field = new Field(getBaseField(103, 101), movingRobots);
+        return field.safetyScore(103 * 101);
+    }
 
-    public static Robot parseRobot(String rawRobot) {
-        List<MatchResult> matchResult = ROBOTS_PATTERN.matcher(rawRobot).results().toList();
-        String[] rawPosition = matchResult.get(0).group().split(",");
-        String[] rawShift = matchResult.get(1).group().split(",");
+    public static Robot parseRobot(InputCursor cursor) {
         return new Robot(
-                new Coordinates(Integer.parseInt(rawPosition[0]), Integer.parseInt(rawPosition[1])),
-                new Coordinates(Integer.parseInt(rawShift[0]), Integer.parseInt(rawShift[1]))
+                new Coordinates(cursor.nextInt(), cursor.nextInt()),
+                new Coordinates(cursor.nextInt(), cursor.nextInt())
         );
     }
 
@@ -184,24 +199,4 @@ public class Task2 {
                         .collect(Collectors.toList()))
                 .collect(Collectors.toList());
     }
-
-    public static void saveImage(Field field, int iteration, int width, int height) {
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                long value = field.getRobotsCount(x, y);
-                int color = (value == 0L) ? 0x000000 : 0xFFFFFF; // Black for 0, White for 1
-                image.setRGB(x, y, color);
-            }
-        }
-
-        try {
-            File output = new File("D:\\IdeaProjects\\advent-of-code-2024\\src\\main\\resources\\imgs\\" + iteration + ".png");
-            ImageIO.write(image, "png", output);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
 }
-
@@ -1,175 +1,91 @@
 package exe.tigrulya.day15;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.Solver;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
+public class Task1 implements Solver<Task1.Input, Long> {
+    public record Input(Grid field, byte[] moves) {
     }
 
-    public record Field(List<List<Character>> field) {
-        public int rows() {
-            return field.size();
-        }
-
-        public int columns() {
-            return field.getFirst().size();
-        }
-
-        public Coordinates move(Coordinates position, Move move) {
-            return tryMove(position, move) ? position.sum(move.shift) : position;
-        }
-
-        public List<Coordinates> locationsOf(char character) {
-            List<Coordinates> locations = new ArrayList<>();
-            for (int y = 0; y < rows(); ++y) {
-                for (int x = 0; x < columns(); ++x) {
-                    if (unsafeGet(x, y) == character) {
-                        locations.add(new Coordinates(x, y));
-                    }
-                }
-            }
-
-            return locations;
-        }
-
-        public void print() {
-            for (var line : field) {
-                String str = line.stream()
-                        .map(Object::toString)
-                        .collect(Collectors.joining());
-                System.out.println(str);
-            }
-            System.out.println();
-        }
-
-        private boolean tryMove(Coordinates position, Move move) {
-            // we are at free position
-            if (get(position).map(ch -> ch == '.').orElse(false)) {
-                return true;
-            }
-
-            // we are at wall now
-            if (get(position).map(ch -> ch == '#').orElse(true)) {
-                return false;
-            }
-
-            Coordinates newPosition = position.sum(move.shift);
-            if (tryMove(position.sum(move.shift), move)) {
-                unsafeSet(newPosition, unsafeGet(position.x, position.y));
-                unsafeSet(position, '.');
-                return true;
-            }
-
-            return false;
-        }
-
-        private void unsafeSet(Coordinates coordinates, char value) {
-            field.get(coordinates.y).set(coordinates.x, value);
-        }
-
-        private char unsafeGet(int x, int y) {
-            return field.get(y).get(x);
-        }
-
-        private Optional<Character> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x));
-        }
-
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
-        }
+    public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/15.txt")));
     }
 
-    public enum Move {
-        UP(0, -1),
-        DOWN(0, 1),
-        LEFT(-1, 0),
-        RIGHT(1, 0);
-
-        private final Coordinates shift;
-
-        Move(int xShift, int yShift) {
-            this.shift = new Coordinates(xShift, yShift);
+    @Override
+    public Input parse(Path input) throws IOException {
+        try (var cursor = InputCursor.open(input)) {
+            Grid field = Grid.of(cursor.nextGrid());
+            return new Input(field, parseMoves(cursor));
         }
+    }
 
-        public static Move from(char symbol) {
-            return switch (symbol) {
-                case '^' -> UP;
-                case 'v' -> DOWN;
-                case '>' -> RIGHT;
-                case '<' -> LEFT;
-                default -> throw new IllegalStateException("Unexpected move symbol: " + symbol);
+    static byte[] parseMoves(InputCursor cursor) {
+        byte[] moves = new byte[(int) (cursor.size() - cursor.offset())];
+        int movesCount = 0;
+        while (cursor.hasRemaining()) {
+            byte symbol = cursor.next();
+            if (symbol == '\n' || symbol == '\r') {
+                continue;
+            }
+            moves[movesCount++] = switch (symbol) {
+                case '^' -> Grid.UP;
+                case 'v' -> Grid.DOWN;
+                case '>' -> Grid.RIGHT;
+                case '<' -> Grid.LEFT;
+                default -> throw new IllegalStateException("Unexpected move symbol: " + (char) symbol);
             };
         }
+        return Arrays.copyOf(moves, movesCount);
     }
 
-    public static void main(String[] args) throws IOException {
-        boolean delimiterHandled = false;
-
-        List<List<Character>> field = new ArrayList<>();
-        List<Move> moves = new ArrayList<>();
-        Coordinates robotPosition = new Coordinates(0, 0);
-        int y = -1;
+    @Override
+    public Long solve(Input input) {
+        return boxesCoordinatesSum(input.field.copy(), input.moves);
+    }
 
-        try (var lines = Files.lines(getResource("input/15.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                ++y;
-                if (line.isBlank()) {
-                    delimiterHandled = true;
-                    continue;
-                }
+    private static long boxesCoordinatesSum(Grid field, byte[] moves) {
+        int robotPosition = field.indexOf((byte) '@');
+        for (var move : moves) {
+            robotPosition = move(field, robotPosition, field.offset(move));
+        }
 
-                if (!delimiterHandled) {
-                    List<Character> row = new ArrayList<>();
-                    int x = 0;
-                    for (var cell : line.toCharArray()) {
-                        row.add(cell);
-                        if (cell == '@') {
-                            robotPosition = new Coordinates(x, y);
-                        }
-                        ++x;
-                    }
-                    field.add(row);
-                    continue;
+        long sum = 0;
+        for (int y = 0; y < field.rows(); ++y) {
+            for (int x = 0; x < field.columns(); ++x) {
+                if (field.get(x, y) == 'O') {
+                    sum += y * 100L + x;
                 }
-
-                line.chars()
-                        .mapToObj(ch -> Move.from((char) ch))
-                        .forEach(moves::add);
             }
-
-            long result = boxesCoordinatesSum(new Field(field), robotPosition, moves);
-            System.out.println("Result: " + result);
         }
+        return sum;
     }
 
-    private static long boxesCoordinatesSum(Field field, Coordinates robotPosition, List<Move> moves) {
-        for (var move : moves) {
-//            System.out.println("Move: " + move);
-            robotPosition = field.move(robotPosition, move);
-//            field.print();
+    private static int move(Grid field, int robotPosition, int shift) {
+        int newPosition = robotPosition + shift;
+        int freePosition = newPosition;
+        while (field.get(freePosition) == 'O') {
+            freePosition += shift;
         }
 
-        return field.locationsOf('O')
-                .stream()
-                .mapToLong(position -> position.y * 100L + position.x)
-                .sum();
-    }
+        // wall (or the field border) behind the boxes
+        if (field.get(freePosition) != '.') {
+            return robotPosition;
+        }
 
+        // the whole row of boxes moves by one, so only its ends change
+        if (freePosition != newPosition) {
+            field.set(freePosition, (byte) 'O');
+        }
+        field.set(newPosition, (byte) '@');
+        field.set(robotPosition, (byte) '.');
+        return newPosition;
+    }
 }
-
@@ -1,215 +1,123 @@
 package exe.tigrulya.day15;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.Solver;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Optional;
-import java.util.SequencedSet;
-import java.util.stream.Collectors;
+import java.nio.file.Path;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
+public class Task2 implements Solver<Task2.Input, Long> {
+    public record Input(Grid field, byte[] moves) {
     }
 
-    public record Field(List<List<Character>> field) {
-        public int rows() {
-            return field.size();
-        }
-
-        public int columns() {
-            return field.getFirst().size();
-        }
-
-        public Coordinates move(Coordinates position, Move move) {
-            SequencedSet<Coordinates> coordinatesToMoveCollector = new LinkedHashSet<>();
+    public static void main(String[] args) throws IOException {
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/15.txt")));
+    }
 
-            if (tryMove(position, move, coordinatesToMoveCollector)) {
-                coordinatesToMoveCollector.forEach(pos -> moveInternal(pos, move));
-                return position.sum(move.shift);
+    @Override
+    public Input parse(Path input) throws IOException {
+        try (var cursor = InputCursor.open(input)) {
+            InputCursor.GridView view = cursor.nextGrid();
+            Grid field = Grid.of(view.rows(), view.columns() * 2, (byte) '.');
+            for (int y = 0; y < view.rows(); ++y) {
+                for (int x = 0; x < view.columns(); ++x) {
+                    byte cell = view.get(x, y);
+                    byte left = cell == 'O' ? (byte) '[' : cell;
+                    byte right = switch (cell) {
+                        case '#' -> (byte) '#';
+                        case 'O' -> (byte) ']';
+                        default -> (byte) '.';
+                    };
+                    field.set(2 * x, y, left);
+                    field.set(2 * x + 1, y, right);
+                }
             }
-
-            return position;
+            return new Input(field, Task1.parseMoves(cursor));
         }
+    }
 
-        private void moveInternal(Coordinates position, Move move) {
-            Coordinates newPosition = position.sum(move.shift);
-            unsafeSet(newPosition, unsafeGet(position));
-            unsafeSet(position, '.');
-        }
+    @Override
+    public Long solve(Input input) {
+        return new Robot(input.field.copy()).boxesCoordinatesSum(input.moves);
+    }
 
-        public List<Coordinates> locationsOf(char character) {
-            List<Coordinates> locations = new ArrayList<>();
-            for (int y = 0; y < rows(); ++y) {
-                for (int x = 0; x < columns(); ++x) {
-                    if (unsafeGet(x, y) == character) {
-                        locations.add(new Coordinates(x, y));
-                    }
-                }
-            }
+    private static class Robot {
+        private final Grid field;
+        // cells to move in the order they were reached
+        private final int[] cellsToMove;
+        // cell is already in cellsToMove if its mark equals the current move number
+        private final int[] marks;
+        private int moveNumber;
 
-            return locations;
+        Robot(Grid field) {
+            this.field = field;
+            this.cellsToMove = new int[field.size()];
+            this.marks = new int[field.size()];
         }
 
-        private boolean tryMove(
-                Coordinates position,
-                Move move,
-                SequencedSet<Coordinates> coordinatesToMove) {
-            // already handled this cell
-            if (coordinatesToMove.contains(position)) {
-                return true;
-            }
-
-            // we are at free position
-            if (get(position).map(ch -> ch == '.').orElse(false)) {
-                return true;
+        long boxesCoordinatesSum(byte[] moves) {
+            int robotPosition = field.indexOf((byte) '@');
+            for (var move : moves) {
+                robotPosition = move(robotPosition, move);
             }
 
-            // we are at wall now
-            if (get(position).map(ch -> ch == '#').orElse(true)) {
-                return false;
-            }
-
-            List<Coordinates> currentObjectCoordinates = new ArrayList<>();
-            currentObjectCoordinates.add(position);
-
-            getNextObjectCoordinate(position)
-                    .filter(ignore -> move.isVertical())
-                    .ifPresent(currentObjectCoordinates::add);
-
-            for (var objectCoordinate : currentObjectCoordinates) {
-                if (!tryMove(objectCoordinate.sum(move.shift), move, coordinatesToMove)) {
-                    return false;
+            long sum = 0;
+            for (int y = 0; y < field.rows(); ++y) {
+                for (int x = 0; x < field.columns(); ++x) {
+                    if (field.get(x, y) == '[') {
+                        sum += y * 100L + x;
+                    }
                 }
-
-                coordinatesToMove.addLast(objectCoordinate);
-            }
-
-            return true;
-        }
-
-        private Optional<Coordinates> getNextObjectCoordinate(Coordinates position) {
-            if (unsafeGet(position) == '[') {
-                return Optional.of(position.sum(Move.RIGHT.shift));
             }
-            return unsafeGet(position) == ']'
-                    ? Optional.of(position.sum(Move.LEFT.shift))
-                    : Optional.empty();
+            return sum;
         }
 
-        private void unsafeSet(Coordinates coordinates, char value) {
-            field.get(coordinates.y).set(coordinates.x, value);
-        }
-
-        private char unsafeGet(Coordinates coordinates) {
-            return field.get(coordinates.y).get(coordinates.x);
-        }
-
-        private char unsafeGet(int x, int y) {
-            return field.get(y).get(x);
-        }
-
-        private Optional<Character> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x));
-        }
-
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
-        }
-    }
-
-    public enum Move {
-        UP(0, -1),
-        DOWN(0, 1),
-        LEFT(-1, 0),
-        RIGHT(1, 0);
-
-        private final Coordinates shift;
-
-        Move(int xShift, int yShift) {
-            this.shift = new Coordinates(xShift, yShift);
-        }
+        private int move(int robotPosition, int direction) {
+            ++moveNumber;
+            int shift = field.offset(direction);
+            boolean vertical = direction == Grid.UP || direction == Grid.DOWN;
 
-        public boolean isVertical() {
-            return this == UP || this == DOWN;
-        }
-
-        public static Move from(char symbol) {
-            return switch (symbol) {
-                case '^' -> UP;
-                case 'v' -> DOWN;
-                case '>' -> RIGHT;
-                case '<' -> LEFT;
-                default -> throw new IllegalStateException("Unexpected move symbol: " + symbol);
-            };
-        }
-    }
+            int count = 0;
+            cellsToMove[count++] = robotPosition;
+            marks[robotPosition] = moveNumber;
 
-    public static void main(String[] args) throws IOException {
-        boolean delimiterHandled = false;
-
-        List<List<Character>> field = new ArrayList<>();
-        List<Move> moves = new ArrayList<>();
-        Coordinates robotPosition = new Coordinates(0, 0);
-        int y = -1;
-
-        try (var lines = Files.lines(getResource("input/15.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                ++y;
-                if (line.isBlank()) {
-                    delimiterHandled = true;
+            for (int i = 0; i < count; ++i) {
+                int next = cellsToMove[i] + shift;
+                byte cell = field.get(next);
+                if (cell == '.') {
                     continue;
                 }
+                if (cell != '[' && cell != ']') {
+                    // wall (or the field border)
+                    return robotPosition;
+                }
 
-                if (!delimiterHandled) {
-                    List<Character> row = new ArrayList<>();
-                    int x = 0;
-                    String scaledRow = line.replaceAll("#", "##")
-                            .replaceAll("O", "[]")
-                            .replaceAll("\\.", "..")
-                            .replaceAll("@", "@.");
-
-                    for (var cell : scaledRow.toCharArray()) {
-                        row.add(cell);
-                        if (cell == '@') {
-                            robotPosition = new Coordinates(x, y);
-                        }
-                        ++x;
-                    }
-                    field.add(row);
-                    continue;
+                count = add(next, count);
+                if (vertical) {
+                    count = add(cell == '[' ? next + 1 : next - 1, count);
                 }
+            }
 
-                line.chars()
-                        .mapToObj(ch -> Move.from((char) ch))
-                        .forEach(moves::add);
+            // farthest cells first, so every cell moves into an already freed one
+            for (int i = count - 1; i >= 0; --i) {
+                int position = cellsToMove[i];
+                field.set(position + shift, field.get(position));
+                field.set(position, (byte) '.');
             }
 
-            long result = boxesCoordinatesSum(new Field(field), robotPosition, moves);
-            System.out.println("Result: " + result);
+            return robotPosition + shift;
         }
-    }
 
-    private static long boxesCoordinatesSum(Field field, Coordinates robotPosition, List<Move> moves) {
-        for (var move : moves) {
-            robotPosition = field.move(robotPosition, move);
+        private int add(int position, int count) {
+            if (marks[position] != moveNumber) {
+                marks[position] = moveNumber;
+                cellsToMove[count++] = position;
+            }
+            return count;
         }
-
-        return field.locationsOf('[')
-                .stream()
-                .mapToLong(position -> position.y * 100L + position.x)
-                .sum();
     }
-
 }
-
@@ -1,117 +1,68 @@
 package exe.tigrulya.day16;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.graph.Graph;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.nio.file.Path;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
-    }
-
-    public record CoordinatesWithDirection(Coordinates coordinates, Direction direction) {
-    }
-
-    public record Field(List<List<Character>> field) {
-        public Optional<Long> findShortestPath(CoordinatesWithDirection start, Coordinates end) {
-            Map<CoordinatesWithDirection, Long> scores = buildPathScores(start);
-            return Stream.of(Direction.values())
-                    .map(d -> new CoordinatesWithDirection(end, d))
-                    .map(scores::get)
-                    .filter(Objects::nonNull)
-                    .sorted()
-                    .findFirst();
-        }
-
-        private Map<CoordinatesWithDirection, Long> buildPathScores(CoordinatesWithDirection start) {
-            Map<CoordinatesWithDirection, Long> scores = new HashMap<>();
-            Set<CoordinatesWithDirection> visitedNodes = new HashSet<>();
-            Set<CoordinatesWithDirection> queue = new HashSet<>();
-
-            queue.add(start);
-            scores.put(start, 0L);
-
-            while (!queue.isEmpty()) {
-                CoordinatesWithDirection vertex = pollWithMinimalScore(queue, scores);
-                for (var neighbour : getNeighbours(vertex.coordinates)) {
-                    if (visitedNodes.contains(neighbour)) {
-                        continue;
-                    }
-
-                    int rotationPenalty = vertex.direction.getRotationPenalty(neighbour.direction);
-                    long newNeighbourScore = scores.get(vertex) + rotationPenalty + 1;
-                    if (newNeighbourScore < scores.getOrDefault(neighbour, Long.MAX_VALUE)) {
-                        scores.put(neighbour, newNeighbourScore);
-                    }
-
-                    queue.add(neighbour);
-                }
-
-                visitedNodes.add(vertex);
+public class Task1 implements Solver<Task1.Input, Long> {
+    public record Field(Grid field) {
+        public Optional<Long> findShortestPath(int start, Direction startDirection, int end) {
+            long[] scores = buildPathScores(state(start, startDirection));
+            long bestScore = Long.MAX_VALUE;
+            for (var direction : DIRECTIONS) {
+                bestScore = Math.min(bestScore, scores[state(end, direction)]);
             }
-
-            return scores;
+            return bestScore == Long.MAX_VALUE ? Optional.empty() : Optional.of(bestScore);
         }
 
-        private CoordinatesWithDirection pollWithMinimalScore(
-                Set<CoordinatesWithDirection> queue,
-                Map<CoordinatesWithDirection, Long> scores) {
-            return queue.stream()
-                    .min(Comparator.comparingLong(scores::get))
-                    .map(coordinates -> {
-                        queue.remove(coordinates);
-                        return coordinates;
-                    })
-                    .orElseThrow();
+        private long[] buildPathScores(int start) {
+            return GraphSearch.forCurrentThread(field.size() * DIRECTIONS.length, "day16.Task1")
+                    .dijkstra(this::forEachMove, start, GraphSearch.NO_NODE, MAX_MOVE_COST)
+                    .distances();
         }
 
-        private List<CoordinatesWithDirection> getNeighbours(Coordinates position) {
-            List<CoordinatesWithDirection> results = new ArrayList<>();
-            for (var direction : Direction.values()) {
-                Coordinates maybeNeighbour = position.sum(direction.shift);
-                get(maybeNeighbour).ifPresent(neighbour ->
-                        results.add(new CoordinatesWithDirection(maybeNeighbour, direction)));
+        private void forEachMove(int state, Graph.EdgeConsumer moves) {
+            Direction stateDirection = DIRECTIONS[state & 3];
+            int position = state >> 2;
+            for (var direction : DIRECTIONS) {
+                int neighbourPosition = field.neighbour(position, direction.gridDirection);
+                if (isFree(neighbourPosition)) {
+                    moves.edge(state(neighbourPosition, direction), stateDirection.getRotationPenalty(direction) + 1);
+                }
             }
-
-            return results;
         }
 
-        private Optional<Character> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x))
-                    .filter(ch -> ch != '#');
+        private boolean isFree(int position) {
+            return !field.isBorder(position) && field.get(position) != '#';
         }
 
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
+        // search node is a cell together with the direction the reindeer is facing
+        private static int state(int position, Direction direction) {
+            return position << 2 | direction.ordinal();
         }
     }
 
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // turning around and stepping forward
+    private static final int MAX_MOVE_COST = 2001;
+
     public enum Direction {
-        UP(0, -1),
-        LEFT(-1, 0),
-        DOWN(0, 1),
-        RIGHT(1, 0);
+        UP(Grid.UP),
+        LEFT(Grid.LEFT),
+        DOWN(Grid.DOWN),
+        RIGHT(Grid.RIGHT);
 
-        private final Coordinates shift;
+        private final int gridDirection;
 
-        Direction(int xShift, int yShift) {
-            this.shift = new Coordinates(xShift, yShift);
+        Direction(int gridDirection) {
+            this.gridDirection = gridDirection;
         }
 
         public int getRotationPenalty(Direction other) {
@@ -121,38 +72,27 @@ public class Task1 {
         }
     }
 
+    public record Input(Grid field, int startPosition, int targetPosition) {
+    }
+
     public static void main(String[] args) throws IOException {
-        List<List<Character>> field = new ArrayList<>();
-        int y = -1;
-
-        Coordinates startPosition = new Coordinates(0, 0);
-        Coordinates targetPosition = new Coordinates(0, 0);
-
-        try (var lines = Files.lines(getResource("input/16.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                ++y;
-                List<Character> row = new ArrayList<>();
-                for (int x = 0; x < line.length(); ++x) {
-                    row.add(line.charAt(x));
-
-                    if (line.charAt(x) == 'S') {
-                        startPosition = new Coordinates(x, y);
-                    }
-
-                    if (line.charAt(x) == 'E') {
-                        targetPosition = new Coordinates(x, y);
-                    }
-                }
-                field.add(row);
-            }
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/16.txt")));
+    }
 
-            long result = new Field(field).findShortestPath(
-                    new CoordinatesWithDirection(startPosition, Direction.RIGHT),
-                    targetPosition
-            ).orElse(-1L);
-            System.out.println("Result: " + result);
-        }
+    @Override
+    public Input parse(Path input) throws IOException {
+        Grid field = Grid.parse(input);
+        return new Input(field, field.indexOf((byte) 'S'), field.indexOf((byte) 'E'));
+    }
+
+    @Override
+    public Long solve(Input input) {
+        return new Field(input.field).findShortestPath(
+                input.startPosition,
+                Direction.RIGHT,
+                input.targetPosition
+        ).orElse(-1L);
     }
 
 }
@@ -1,157 +1,107 @@
 package exe.tigrulya.day16;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.graph.Graph;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
-    }
-
-    public record CoordinatesWithDirection(Coordinates coordinates, Direction direction) {
-    }
-
-    public record ScoreWithHistory(long score, Set<Coordinates> historyPath) implements Comparable<ScoreWithHistory> {
-        public static final ScoreWithHistory DEFAULT = new ScoreWithHistory(Long.MAX_VALUE, new HashSet<>());
-
-        public static ScoreWithHistory withNoHistory() {
-            return new ScoreWithHistory(0, new HashSet<>());
-        }
-
-        @Override
-        public int compareTo(ScoreWithHistory o) {
-            return Long.compare(score, o.score);
-        }
-
-        public Set<Coordinates> withNewNode(Coordinates coordinates) {
-            return withNewNodes(List.of(coordinates));
-        }
-
-        public Set<Coordinates> withNewNodes(Collection<Coordinates> coordinates) {
-            Set<Coordinates> newPath = new HashSet<>(historyPath);
-            newPath.addAll(coordinates);
-            return newPath;
-        }
-    }
-
-    public record Field(List<List<Character>> field) {
-
-        public int countShortestPathTiles(CoordinatesWithDirection start, Coordinates end) {
-            Map<CoordinatesWithDirection, ScoreWithHistory> scores = buildPathScores(start);
-            ScoreWithHistory directionalScores = Stream.of(Direction.values())
-                    .map(d -> new CoordinatesWithDirection(end, d))
-                    .map(scores::get)
-                    .filter(Objects::nonNull)
-                    .sorted()
-                    .findFirst()
-                    .orElseThrow();
+public class Task2 implements Solver<Task2.Input, Integer> {
+    public record Field(Grid field) {
 
-            return directionalScores.historyPath.size() + 1;
-        }
-
-        private Map<CoordinatesWithDirection, ScoreWithHistory> buildPathScores(CoordinatesWithDirection start) {
-            Map<CoordinatesWithDirection, ScoreWithHistory> scoresWithHistory = new HashMap<>();
-            Set<CoordinatesWithDirection> visitedNodes = new HashSet<>();
-            Set<CoordinatesWithDirection> queue = new HashSet<>();
+        public int countShortestPathTiles(int start, Direction startDirection, int end) {
+            long[] scores = buildPathScores(state(start, startDirection));
+            long bestScore = Long.MAX_VALUE;
+            for (var direction : DIRECTIONS) {
+                bestScore = Math.min(bestScore, scores[state(end, direction)]);
+            }
+            if (bestScore == Long.MAX_VALUE) {
+                throw new NoSuchElementException("Target is unreachable");
+            }
 
-            queue.add(start);
-            scoresWithHistory.put(start, ScoreWithHistory.withNoHistory());
+            // walk back from the best end states through every predecessor lying on a shortest path
+            boolean[] onShortestPath = new boolean[scores.length];
+            int[] statesQueue = new int[scores.length];
+            int tail = 0;
+            for (var direction : DIRECTIONS) {
+                int endState = state(end, direction);
+                if (scores[endState] == bestScore) {
+                    onShortestPath[endState] = true;
+                    statesQueue[tail++] = endState;
+                }
+            }
 
-            while (!queue.isEmpty()) {
-                CoordinatesWithDirection vertex = pollWithMinimalScore(queue, scoresWithHistory);
-                for (var neighbour : getNeighbours(vertex.coordinates)) {
-                    if (visitedNodes.contains(neighbour)) {
-                        continue;
-                    }
+            boolean[] tiles = new boolean[field.size()];
+            int tilesCount = 0;
+            for (int head = 0; head < tail; ++head) {
+                int vertex = statesQueue[head];
+                int position = vertex >> 2;
+                Direction vertexDirection = DIRECTIONS[vertex & 3];
+                if (!tiles[position]) {
+                    tiles[position] = true;
+                    ++tilesCount;
+                }
 
-                    ScoreWithHistory currentScoreWithHistory = scoresWithHistory.get(vertex);
-                    int rotationPenalty = vertex.direction.getRotationPenalty(neighbour.direction);
-                    long newNeighbourScore = currentScoreWithHistory.score + rotationPenalty + 1;
-
-                    ScoreWithHistory oldNeighbourScoreWithHistory = scoresWithHistory.getOrDefault(neighbour, ScoreWithHistory.DEFAULT);
-                    if (newNeighbourScore < oldNeighbourScoreWithHistory.score) {
-                        scoresWithHistory.put(neighbour, new ScoreWithHistory(
-                                newNeighbourScore,
-                                currentScoreWithHistory.withNewNode(neighbour.coordinates)
-                        ));
-                    } else if (newNeighbourScore == oldNeighbourScoreWithHistory.score) {
-                        scoresWithHistory.put(neighbour, new ScoreWithHistory(
-                                newNeighbourScore,
-                                oldNeighbourScoreWithHistory.withNewNodes(
-                                        currentScoreWithHistory.withNewNode(neighbour.coordinates))
-                        ));
+                int previousPosition = position - field.offset(vertexDirection.gridDirection);
+                for (var direction : DIRECTIONS) {
+                    int previous = state(previousPosition, direction);
+                    if (!onShortestPath[previous] && scores[previous] != Long.MAX_VALUE
+                            && scores[previous] + direction.getRotationPenalty(vertexDirection) + 1 == scores[vertex]) {
+                        onShortestPath[previous] = true;
+                        statesQueue[tail++] = previous;
                     }
-
-                    queue.add(neighbour);
                 }
-
-                visitedNodes.add(vertex);
             }
 
-            return scoresWithHistory;
+            return tilesCount;
         }
 
-        private CoordinatesWithDirection pollWithMinimalScore(
-                Set<CoordinatesWithDirection> queue,
-                Map<CoordinatesWithDirection, ScoreWithHistory> scores) {
-            return queue.stream()
-                    .min(Comparator.comparingLong(v -> scores.get(v).score))
-                    .map(coordinates -> {
-                        queue.remove(coordinates);
-                        return coordinates;
-                    })
-                    .orElseThrow();
+        private long[] buildPathScores(int start) {
+            return GraphSearch.forCurrentThread(field.size() * DIRECTIONS.length, "day16.Task2")
+                    .dijkstra(this::forEachMove, start, GraphSearch.NO_NODE, MAX_MOVE_COST)
+                    .distances();
         }
 
-        private List<CoordinatesWithDirection> getNeighbours(Coordinates position) {
-            List<CoordinatesWithDirection> results = new ArrayList<>();
-            for (var direction : Direction.values()) {
-                Coordinates maybeNeighbour = position.sum(direction.shift);
-                get(maybeNeighbour).ifPresent(neighbour ->
-                        results.add(new CoordinatesWithDirection(maybeNeighbour, direction)));
+        private void forEachMove(int state, Graph.EdgeConsumer moves) {
+            Direction stateDirection = DIRECTIONS[state & 3];
+            int position = state >> 2;
+            for (var direction : DIRECTIONS) {
+                int neighbourPosition = field.neighbour(position, direction.gridDirection);
+                if (isFree(neighbourPosition)) {
+                    moves.edge(state(neighbourPosition, direction), stateDirection.getRotationPenalty(direction) + 1);
+                }
             }
-
-            return results;
         }
 
-        private Optional<Character> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x))
-                    .filter(ch -> ch != '#');
+        private boolean isFree(int position) {
+            return !field.isBorder(position) && field.get(position) != '#';
         }
 
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
+        // search node is a cell together with the direction the reindeer is facing
+        private static int state(int position, Direction direction) {
+            return position << 2 | direction.ordinal();
         }
     }
 
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // turning around and stepping forward
+    private static final int MAX_MOVE_COST = 2001;
+
     public enum Direction {
-        UP(0, -1),
-        LEFT(-1, 0),
-        DOWN(0, 1),
-        RIGHT(1, 0);
+        UP(Grid.UP),
+        LEFT(Grid.LEFT),
+        DOWN(Grid.DOWN),
+        RIGHT(Grid.RIGHT);
 
-        private final Coordinates shift;
+        private final int gridDirection;
 
-        Direction(int xShift, int yShift) {
-            this.shift = new Coordinates(xShift, yShift);
+        Direction(int gridDirection) {
+            this.gridDirection = gridDirection;
         }
 
         public int getRotationPenalty(Direction other) {
@@ -161,38 +111,27 @@ public class Task2 {
         }
     }
 
+    public record Input(Grid field, int startPosition, int targetPosition) {
+    }
+
     public static void main(String[] args) throws IOException {
-        List<List<Character>> field = new ArrayList<>();
-        int y = -1;
-
-        Coordinates startPosition = new Coordinates(0, 0);
-        Coordinates targetPosition = new Coordinates(0, 0);
-
-        try (var lines = Files.lines(getResource("input/16.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                ++y;
-                List<Character> row = new ArrayList<>();
-                for (int x = 0; x < line.length(); ++x) {
-                    row.add(line.charAt(x));
-
-                    if (line.charAt(x) == 'S') {
-                        startPosition = new Coordinates(x, y);
-                    }
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/16.txt")));
+    }
 
-                    if (line.charAt(x) == 'E') {
-                        targetPosition = new Coordinates(x, y);
-                    }
-                }
-                field.add(row);
-            }
+    @Override
+    public Input parse(Path input) throws IOException {
+        Grid field = Grid.parse(input);
+        return new Input(field, field.indexOf((byte) 'S'), field.indexOf((byte) 'E'));
+    }
 
-            int result = new Field(field).countShortestPathTiles(
-                    new CoordinatesWithDirection(startPosition, Direction.RIGHT),
-                    targetPosition
-            );
-            System.out.println("Result: " + result);
-        }
+    @Override
+    public Integer solve(Input input) {
+        return new Field(input.field).countShortestPathTiles(
+                input.startPosition,
+                Direction.RIGHT,
+                input.targetPosition
+        );
     }
 
 }
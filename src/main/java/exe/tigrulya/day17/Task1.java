@@ -1,7 +1,10 @@
 package exe.tigrulya.day17;
 
+import exe.tigrulya.Solver;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -13,7 +16,7 @@ import java.util.stream.Stream;
 import static exe.tigrulya.Utils.getResource;
 import static exe.tigrulya.day17.Task1.ComboOperandSupport.asCombo;
 
-public class Task1 {
+public class Task1 implements Solver<Task1.Input, String> {
 
     public enum Register {
         A, B, C
@@ -28,6 +31,10 @@ public class Task1 {
             return Optional.ofNullable(registers.get(name))
                     .orElseThrow();
         }
+
+        public Registers copy() {
+            return new Registers(new HashMap<>(registers));
+        }
     }
 
     public static class ComboOperandSupport {
@@ -186,13 +193,22 @@ public class Task1 {
         }
     }
 
+    public record Input(List<Byte> encodedProgram, Registers registers) {
+    }
+
     public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/17.txt")));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
         boolean delimiterHandled = false;
 
         Registers registers = new Registers(new HashMap<>());
         List<Byte> encodedProgram = new ArrayList<>();
 
-        try (var lines = Files.lines(getResource("input/17.txt"))) {
+        try (var lines = Files.lines(input)) {
             Iterable<String> linesIterable = lines::iterator;
             for (var line : linesIterable) {
                 if (line.isBlank()) {
@@ -211,14 +227,17 @@ public class Task1 {
                         .toList();
                 break;
             }
+        }
 
-            String result = new Program(encodedProgram, registers).run()
-                    .stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining(","));
+        return new Input(encodedProgram, registers);
+    }
 
-            System.out.println("Result: " + result);
-        }
+    @Override
+    public String solve(Input input) {
+        return new Program(input.encodedProgram, input.registers.copy()).run()
+                .stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
     }
 
     private static void parseRegister(String value, Registers registers) {
@@ -1,7 +1,11 @@
 package exe.tigrulya.day17;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -12,7 +16,7 @@ import java.util.stream.Stream;
 import static exe.tigrulya.Utils.getResource;
 import static exe.tigrulya.day17.Task2.ComboOperandSupport.asCombo;
 
-public class Task2 {
+public class Task2 implements Solver<Task2.Input, Long> {
 
     public enum Register {
         A, B, C
@@ -171,7 +175,9 @@ public class Task2 {
         }
 
         public Optional<Long> findRecursiveA(long recursiveA, int depth) {
-            System.out.println("IN:   Recursive A: " + recursiveA + " depth: " + depth);
+            if (Trace.TRACE) {
+                Trace.trace("IN:   Recursive A: %d depth: %d", recursiveA, depth);
+            }
             if (depth > encodedProgram.size()) {
                 return Optional.of(recursiveA >> 3);
             }
@@ -179,12 +185,15 @@ public class Task2 {
             for (int i = 0; i < 8; ++i) {
                 List<Byte> output = run(recursiveA + i);
 
-                System.out.println("Trying " + Long.toOctalString(recursiveA + i)
-                        + " should be: " + encodedProgram.subList(encodedProgram.size() - depth, encodedProgram.size())
-                        + " but is: " + output);
+                if (Trace.TRACE) {
+                    Trace.trace("Trying %o should be: %s but is: %s", recursiveA + i,
+                            encodedProgram.subList(encodedProgram.size() - depth, encodedProgram.size()), output);
+                }
 
                 if (output.equals(encodedProgram.subList(encodedProgram.size() - depth, encodedProgram.size()))) {
-                    System.out.println("FROM BASE " + (recursiveA + i) + " TO: " + ((recursiveA + i) << 3));
+                    if (Trace.DEBUG) {
+                        Trace.debug("FROM BASE %d TO: %d", recursiveA + i, (recursiveA + i) << 3);
+                    }
                     Optional<Long> maybeA = findRecursiveA((recursiveA + i) << 3, depth + 1);
                     if (maybeA.isPresent()) {
                         return maybeA;
@@ -220,13 +229,22 @@ public class Task2 {
         }
     }
 
+    public record Input(List<Byte> encodedProgram, Registers registers) {
+    }
+
     public static void main(String[] args) throws IOException {
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/17.txt")));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
         boolean delimiterHandled = false;
 
         Registers registers = new Registers(new HashMap<>());
         List<Byte> encodedProgram = new ArrayList<>();
 
-        try (var lines = Files.lines(getResource("input/17.txt"))) {
+        try (var lines = Files.lines(input)) {
             Iterable<String> linesIterable = lines::iterator;
             for (var line : linesIterable) {
                 if (line.isBlank()) {
@@ -245,10 +263,14 @@ public class Task2 {
                         .toList();
                 break;
             }
-
-            long result = new Program(encodedProgram, registers).findRecursiveA();
-            System.out.println("Result: " + result);
         }
+
+        return new Input(encodedProgram, registers);
+    }
+
+    @Override
+    public Long solve(Input input) {
+        return new Program(input.encodedProgram, input.registers).findRecursiveA();
     }
 
     private static void parseRegister(String value, Registers registers) {
@@ -1,160 +1,97 @@
 package exe.tigrulya.day18;
 
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.graph.Graph;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.IterationEvent;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
+public class Task2 implements Solver<Task2.Input, Task2.Coordinates> {
     public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
-        }
     }
 
-    public record Field(List<List<Character>> field) {
-        public Optional<Long> findShortestPath(Coordinates start, Coordinates end) {
-            Map<Coordinates, Long> scores = buildPathScores(start);
-            return Optional.ofNullable(scores.get(end));
-        }
-
-        private Map<Coordinates, Long> buildPathScores(Coordinates start) {
-            Map<Coordinates, Long> scores = new HashMap<>();
-            Set<Coordinates> visitedNodes = new HashSet<>();
-            Set<Coordinates> queue = new HashSet<>();
-
-            queue.add(start);
-            scores.put(start, 0L);
-
-            while (!queue.isEmpty()) {
-                Coordinates vertex = pollWithMinimalScore(queue, scores);
-                for (var neighbour : getNeighbours(vertex)) {
-                    if (visitedNodes.contains(neighbour)) {
-                        continue;
-                    }
-
-                    long newNeighbourScore = scores.get(vertex) + 1;
-                    if (newNeighbourScore < scores.getOrDefault(neighbour, Long.MAX_VALUE)) {
-                        scores.put(neighbour, newNeighbourScore);
-                    }
-
-                    queue.add(neighbour);
-                }
-
-                visitedNodes.add(vertex);
-            }
-
-            return scores;
-        }
-
-        private Coordinates pollWithMinimalScore(
-                Set<Coordinates> queue,
-                Map<Coordinates, Long> scores) {
-            return queue.stream()
-                    .min(Comparator.comparingLong(scores::get))
-                    .map(coordinates -> {
-                        queue.remove(coordinates);
-                        return coordinates;
-                    })
-                    .orElseThrow();
-        }
-
-        private List<Coordinates> getNeighbours(Coordinates position) {
-            List<Coordinates> results = new ArrayList<>();
-            for (var direction : Direction.values()) {
-                Coordinates maybeNeighbour = position.sum(direction.shift);
-                get(maybeNeighbour).ifPresent(neighbour ->
-                        results.add(maybeNeighbour));
-            }
-
-            return results;
-        }
+    public record Input(List<Coordinates> obstacles, int size) {
+    }
 
-        private Optional<Character> get(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x))
-                    .filter(ch -> ch != '#');
+    public record Field(Grid field, GraphSearch search) {
+        public Optional<Long> findShortestPath(int start, int end) {
+            search.bfs(Graph.grid(field, this::isFree), start, end);
+            return search.isReached(end) ? Optional.of(search.distance(end)) : Optional.empty();
         }
 
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
+        private boolean isFree(int position) {
+            return !field.isBorder(position) && field.get(position) != '#';
         }
 
         public void set(Coordinates coordinates, char value) {
-            field.get(coordinates.y).set(coordinates.x, value);
+            field.set(coordinates.x, coordinates.y, (byte) value);
         }
 
         public void print() {
-            for (var line : field) {
-                String str = line.stream()
-                        .map(Object::toString)
-                        .collect(Collectors.joining());
-                System.out.println(str);
-            }
-            System.out.println();
+            Trace.trace("%s", field);
         }
     }
 
-    public enum Direction {
-        UP(0, -1),
-        LEFT(-1, 0),
-        DOWN(0, 1),
-        RIGHT(1, 0);
+    private static final int TAKE_FIRST = 1024;
+    // size of the puzzle memory space, larger generated inputs are detected by their coordinates
+    private static final int SIZE = 71;
 
-        private final Coordinates shift;
+    public static void main(String[] args) throws IOException {
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/18.txt")));
+    }
 
-        Direction(int xShift, int yShift) {
-            this.shift = new Coordinates(xShift, yShift);
+    @Override
+    public Input parse(Path input) throws IOException {
+        long[][] columns = ParallelLineParser.columns(input, 2);
+        List<Coordinates> obstacles = new ArrayList<>(columns[0].length);
+        int size = SIZE;
+        for (int i = 0; i < columns[0].length; ++i) {
+            int x = Math.toIntExact(columns[0][i]);
+            int y = Math.toIntExact(columns[1][i]);
+            size = Math.max(size, Math.max(x, y) + 1);
+            obstacles.add(new Coordinates(x, y));
         }
+        return new Input(obstacles, size);
     }
 
-    public static void main(String[] args) throws IOException {
-        int takeFirst = 1024;
-        int size = 71;
-
-        try (var lines = Files.lines(getResource("input/18.txt"))) {
-            List<Coordinates> obstacles = lines.map(line -> line.split(","))
-                    .map(coords -> new Coordinates(Integer.parseInt(coords[0]), Integer.parseInt(coords[1])))
-                    .toList();
-
-            Optional<Long> result = Optional.of(-1L);
-            while (result.isPresent()) {
-                System.out.println("progress: " + (1.0 * takeFirst / obstacles.size()));
-
-                Field field = buildField(obstacles.subList(0, takeFirst++), size);
-                result = field.findShortestPath(
-                        new Coordinates(0, 0),
-                        new Coordinates(size - 1, size - 1)
-                );
+    @Override
+    public Coordinates solve(Input input) {
+        List<Coordinates> obstacles = input.obstacles;
+        int size = input.size;
+        int takeFirst = TAKE_FIRST;
+        GraphSearch search = GraphSearch.forCurrentThread(Grid.size(size, size), "day18.Task2");
+
+        // obstacles only ever get added, so a single field gets one more of them per iteration
+        Field field = new Field(Grid.of(size, size, (byte) '.'), search);
+        obstacles.subList(0, takeFirst - 1).forEach(o -> field.set(o, '#'));
+        int start = field.field().id(0, 0);
+        int end = field.field().id(size - 1, size - 1);
+
+        Optional<Long> result = Optional.of(-1L);
+        while (result.isPresent()) {
+            if (Trace.DEBUG) {
+                Trace.debug("progress: %.3f", 1.0 * takeFirst / obstacles.size());
             }
 
-            System.out.println("Result: " + obstacles.get(takeFirst - 2));
+            IterationEvent event = Events.beginIteration();
+            field.set(obstacles.get(takeFirst++ - 1), '#');
+            result = field.findShortestPath(start, end);
+            Events.commitIteration(event, "day18.Task2", takeFirst - TAKE_FIRST, takeFirst - 1);
         }
-    }
 
-    private static Field buildField(List<Coordinates> obstacles, int size) {
-        List<List<Character>> fieldRows = IntStream.range(0, size)
-                .mapToObj(row -> IntStream.range(0, size)
-                        .mapToObj(v -> '.')
-                        .collect(Collectors.toList()))
-                .toList();
-
-        Field field = new Field(fieldRows);
-        obstacles.forEach(o -> field.set(o, '#'));
-//        field.print();
-        return field;
+        return obstacles.get(takeFirst - 2);
     }
 
 }
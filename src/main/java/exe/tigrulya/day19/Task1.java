@@ -1,7 +1,11 @@
 package exe.tigrulya.day19;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,12 +13,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<Task1.Input, Long> {
 
     public static class TrieNode {
         protected final Map<Character, TrieNode> children = new HashMap<>();
@@ -59,7 +61,6 @@ public class Task1 {
                 }
             }
 
-            possiblePrefixes.add(string.length());
             return possiblePrefixes;
         }
 
@@ -81,41 +82,59 @@ public class Task1 {
         }
     }
 
+    public record Input(List<String> towels, List<String> designs) {
+    }
+
+    /**
+     * Straightforward search over substrings, kept as the oracle for the trie one.
+     */
+    public static class Reference extends Task1 {
+        @Override
+        public Long solve(Input input) {
+            Set<String> towels = new HashSet<>(input.towels);
+            return input.designs.stream()
+                    .filter(design -> simpleIsPossible(design, towels))
+                    .count();
+        }
+    }
+
     public static void main(String[] args) throws IOException {
-        Trie trie = new Trie();
+        Task1 task = new Task1();
+        Input input = task.parseRecorded(getResource("input/19.txt"));
 
-        Set<String> towels = new HashSet<>();
+        System.out.println("Result: " + task.solveRecorded(input));
+        System.out.println("simple Result: " + new Reference().solve(input));
+    }
 
-        boolean delimiterHandled = false;
-        long result = 0;
-        long simpleResult = 0;
-
-        try (var lines = Files.lines(getResource("input/19.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                if (line.isBlank()) {
-                    delimiterHandled = true;
-                    continue;
-                }
+    @Override
+    public Input parse(Path input) throws IOException {
+        List<String> towels = new ArrayList<>();
+        long designsStart;
+        // towels take the lines up to the first blank one, designs all the rest
+        try (var cursor = InputCursor.open(input)) {
+            while (!cursor.skipBlankLine()) {
+                towels.addAll(List.of(cursor.nextLine().toString().split(", ")));
+            }
+            designsStart = cursor.offset();
+        }
 
-                if (!delimiterHandled) {
-                    trie.add(line.split(", "));
-                    towels = Stream.of(line.split(", ")).collect(Collectors.toSet());
-                    continue;
-                }
+        List<String> designs = ParallelLineParser.records(input, designsStart, cursor -> cursor.nextLine().toString());
+        return new Input(towels, designs);
+    }
 
-                if (isPossible(line, 0, trie)) {
-                    ++result;
-                }
+    @Override
+    public Long solve(Input input) {
+        Trie trie = new Trie();
+        input.towels.forEach(trie::add);
 
-                if (simpleIsPossible(line, towels)) {
-                    ++simpleResult;
-                }
+        long result = 0;
+        for (var design : input.designs) {
+            if (isPossible(design, 0, trie)) {
+                ++result;
             }
-
-            System.out.println("Result: " + result);
-            System.out.println("simple Result: " + simpleResult);
         }
+
+        return result;
     }
 
     private static boolean simpleIsPossible(String combination, Set<String> towels) {
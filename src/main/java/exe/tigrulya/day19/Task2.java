@@ -1,16 +1,23 @@
 package exe.tigrulya.day19;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
+public class Task2 implements Solver<Task2.Input, Long> {
 
     public static class TrieNode {
         protected final Map<Character, TrieNode> children = new HashMap<>();
@@ -79,32 +86,45 @@ public class Task2 {
         }
     }
 
+    public record Input(List<String> towels, List<String> designs) {
+    }
+
     public static void main(String[] args) throws IOException {
-        Trie trie = new Trie();
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/19.txt")));
+    }
 
-        boolean delimiterHandled = false;
-        long result = 0;
+    @Override
+    public Input parse(Path input) throws IOException {
+        List<String> towels = new ArrayList<>();
+        long designsStart;
+        // towels take the lines up to the first blank one, designs all the rest
+        try (var cursor = InputCursor.open(input)) {
+            while (!cursor.skipBlankLine()) {
+                towels.addAll(List.of(cursor.nextLine().toString().split(", ")));
+            }
+            designsStart = cursor.offset();
+        }
 
-        try (var lines = Files.lines(getResource("input/19.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                if (line.isBlank()) {
-                    delimiterHandled = true;
-                    continue;
-                }
+        List<String> designs = ParallelLineParser.records(input, designsStart, cursor -> cursor.nextLine().toString());
+        return new Input(towels, designs);
+    }
 
-                if (!delimiterHandled) {
-                    trie.add(line.split(", "));
-                    continue;
-                }
+    @Override
+    public Long solve(Input input) {
+        Trie trie = new Trie();
+        input.towels.forEach(trie::add);
 
-                long combinations = possibleCombinations(new HashMap<>(), line, trie);
-                System.out.println("Possible " + combinations + " for " + line);
-                result += combinations;
+        long result = 0;
+        for (var design : input.designs) {
+            long combinations = possibleCombinations(new HashMap<>(), design, trie);
+            if (Trace.DEBUG) {
+                Trace.debug("Possible %d for %s", combinations, design);
             }
-
-            System.out.println("Result: " + result);
+            result += combinations;
         }
+
+        return result;
     }
 
     private static long possibleCombinations(Map<String, Long> memo, String combination, Trie trie) {
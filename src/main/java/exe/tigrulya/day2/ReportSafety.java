@@ -0,0 +1,77 @@
+package exe.tigrulya.day2;
+
+import exe.tigrulya.collections.LongLongHashMap;
+
+/**
+ * Tells whether a report stays safe after removing at most {@code maxRemoved} of its levels.
+ * The levels left form a chain where every step goes the same way by 1 to 3, so the fewest removals are
+ * the levels outside of the longest such chain. A level can only extend the chains ending 1 to 3 below or above it,
+ * so long reports keep the longest increasing and decreasing chain ending at each value seen so far and take
+ * a single pass. Short reports compare every pair of levels instead, which is cheaper than hashing a few values.
+ */
+public class ReportSafety {
+    private static final int MAX_STEP = 3;
+    private static final int MAX_SHORT_REPORT = 32;
+
+    private final long[] increasingChains = new long[MAX_SHORT_REPORT];
+    private final long[] decreasingChains = new long[MAX_SHORT_REPORT];
+
+    private final LongLongHashMap increasing = new LongLongHashMap();
+    private final LongLongHashMap decreasing = new LongLongHashMap();
+
+    public boolean isSafe(long[] levels, int from, int to, int maxRemoved) {
+        return to - from <= MAX_SHORT_REPORT
+                ? isSafeShort(levels, from, to, maxRemoved)
+                : isSafeLong(levels, from, to, maxRemoved);
+    }
+
+    private boolean isSafeShort(long[] levels, int from, int to, int maxRemoved) {
+        long longest = 0;
+        for (int i = 0; i < to - from; ++i) {
+            long level = levels[from + i];
+            long increasingChain = 1;
+            long decreasingChain = 1;
+            for (int j = 0; j < i; ++j) {
+                long step = level - levels[from + j];
+                if (step >= 1 && step <= MAX_STEP) {
+                    increasingChain = Math.max(increasingChain, increasingChains[j] + 1);
+                } else if (step <= -1 && step >= -MAX_STEP) {
+                    decreasingChain = Math.max(decreasingChain, decreasingChains[j] + 1);
+                }
+            }
+            increasingChains[i] = increasingChain;
+            decreasingChains[i] = decreasingChain;
+            longest = Math.max(longest, Math.max(increasingChain, decreasingChain));
+
+            // any chain of the whole report is one of the levels so far too, so it can't drop fewer of them
+            if (i + 1 - longest > maxRemoved) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSafeLong(long[] levels, int from, int to, int maxRemoved) {
+        increasing.clear();
+        decreasing.clear();
+
+        long longest = 0;
+        for (int i = from; i < to; ++i) {
+            long level = levels[i];
+            long increasingChain = 1;
+            long decreasingChain = 1;
+            for (int step = 1; step <= MAX_STEP; ++step) {
+                increasingChain = Math.max(increasingChain, increasing.get(level - step, 0) + 1);
+                decreasingChain = Math.max(decreasingChain, decreasing.get(level + step, 0) + 1);
+            }
+            increasing.put(level, Math.max(increasing.get(level, 0), increasingChain));
+            decreasing.put(level, Math.max(decreasing.get(level, 0), decreasingChain));
+            longest = Math.max(longest, Math.max(increasingChain, decreasingChain));
+
+            if (i - from + 1 - longest > maxRemoved) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+package exe.tigrulya.day2;
+
+import exe.tigrulya.ParallelLineParser.Rows;
+
+/**
+ * Safety without removals of all reports at once, evaluated over the whole column of levels instead of report
+ * by report. Every pair of neighbouring levels gets a bit in two bitsets, whether it steps up by 1 to 3 and whether
+ * it steps down by 1 to 3, in a single branchless pass. A report is safe if all of its pairs are set in one of them,
+ * pairs spanning two reports are classified as well and never looked at.
+ * Built with {@code -Pvector} and started with {@code --add-modules jdk.incubator.vector}, pairs are classified
+ * in vector lanes by {@code VectorSteps}, otherwise one at a time.
+ */
+public class SafetyBatch {
+    private static final StepClassifier VECTOR_STEPS = loadVectorSteps();
+
+    static final long MIN_STEP = 1;
+    static final long MAX_STEP = 3;
+    static final long STEP_RANGE = MAX_STEP - MIN_STEP + 1;
+
+    /**
+     * Classifier of the leading pairs in bulk.
+     */
+    interface StepClassifier {
+        /**
+         * Sets the bits of a prefix of the pairs.
+         *
+         * @return number of pairs classified, the rest is left to the caller
+         */
+        int classify(long[] levels, int pairs, long[] increasing, long[] decreasing);
+    }
+
+    private final Rows reports;
+    private final long[] increasing;
+    private final long[] decreasing;
+
+    private SafetyBatch(Rows reports, long[] increasing, long[] decreasing) {
+        this.reports = reports;
+        this.increasing = increasing;
+        this.decreasing = decreasing;
+    }
+
+    public static SafetyBatch evaluate(Rows reports) {
+        long[] levels = reports.values();
+        int pairs = Math.max(0, levels.length - 1);
+        long[] increasing = new long[(pairs + Long.SIZE - 1) / Long.SIZE];
+        long[] decreasing = new long[increasing.length];
+
+        int classified = VECTOR_STEPS == null ? 0 : VECTOR_STEPS.classify(levels, pairs, increasing, decreasing);
+        classify(levels, classified, pairs, increasing, decreasing);
+        return new SafetyBatch(reports, increasing, decreasing);
+    }
+
+    private static StepClassifier loadVectorSteps() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (StepClassifier) Class.forName("exe.tigrulya.day2.VectorSteps").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            // built without the vector profile
+            return null;
+        }
+    }
+
+    private static void classify(long[] levels, int from, int pairs, long[] increasing, long[] decreasing) {
+        long up = 0;
+        long down = 0;
+        for (int i = from; i < pairs; ++i) {
+            long step = levels[i + 1] - levels[i];
+            // shifted into signed space, a single comparison checks both bounds like an unsigned one would
+            up |= (step - MIN_STEP + Long.MIN_VALUE < STEP_RANGE + Long.MIN_VALUE ? 1L : 0L) << i;
+            down |= (step + MAX_STEP + Long.MIN_VALUE < STEP_RANGE + Long.MIN_VALUE ? 1L : 0L) << i;
+            if ((i & (Long.SIZE - 1)) == Long.SIZE - 1) {
+                increasing[i >>> 6] |= up;
+                decreasing[i >>> 6] |= down;
+                up = 0;
+                down = 0;
+            }
+        }
+        if (pairs > 0) {
+            increasing[(pairs - 1) >>> 6] |= up;
+            decreasing[(pairs - 1) >>> 6] |= down;
+        }
+    }
+
+    public boolean isSafe(int report) {
+        // pair i is the step from level i to level i + 1
+        int from = reports.start(report);
+        int to = reports.end(report) - 1;
+        return allSet(increasing, from, to) || allSet(decreasing, from, to);
+    }
+
+    public long countSafe() {
+        long safe = 0;
+        for (int report = 0; report < reports.count(); ++report) {
+            if (isSafe(report)) {
+                ++safe;
+            }
+        }
+        return safe;
+    }
+
+    private static boolean allSet(long[] bits, int from, int to) {
+        while (from < to) {
+            int offset = from & (Long.SIZE - 1);
+            int count = Math.min(Long.SIZE - offset, to - from);
+            long mask = (count == Long.SIZE ? -1L : (1L << count) - 1) << offset;
+            if ((bits[from >>> 6] & mask) != mask) {
+                return false;
+            }
+            from += count;
+        }
+        return true;
+    }
+}
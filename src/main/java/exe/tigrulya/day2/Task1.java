@@ -1,35 +1,61 @@
 package exe.tigrulya.day2;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.ParallelLineParser.Rows;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<Rows, Long>, StreamingSolver<Long> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/2.txt"))) {
-            long safeReports = lines.map(Task1::parseReport)
-                    .filter(Task1::isSafeReport)
-                    .count();
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/2.txt")));
+    }
 
-            System.out.println("Result: " + safeReports);
-        }
+    @Override
+    public Rows parse(Path input) throws IOException {
+        return ParallelLineParser.rows(input);
     }
 
-    private static List<Long> parseReport(String line) {
-        String[] tokens = line.split("\\s+");
-        return Arrays.stream(tokens)
-                .map(Long::parseLong)
-                .toList();
+    @Override
+    public Long solve(Rows reports) {
+        return SafetyBatch.evaluate(reports).countSafe();
     }
 
-    private static boolean isSafeReport(List<Long> levels) {
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        long safeReports = 0;
+        long[] levels = new long[16];
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasNextNumber()) {
+                int count = 0;
+                do {
+                    if (count == levels.length) {
+                        levels = Arrays.copyOf(levels, count * 2);
+                    }
+                    levels[count++] = cursor.nextLong();
+                } while (!cursor.endOfLine());
+
+                if (isSafeReport(levels, 0, count)) {
+                    ++safeReports;
+                }
+            }
+        }
+        return safeReports;
+    }
+
+    private static boolean isSafeReport(long[] levels, int from, int to) {
         int sign = 0;
-        for (int i = 1; i < levels.size(); ++i) {
-            long diff = Math.abs(levels.get(i) - levels.get(i - 1));
-            int newSign = (int) Math.signum(levels.get(i) - levels.get(i - 1));
+        for (int i = from + 1; i < to; ++i) {
+            long diff = Math.abs(levels[i] - levels[i - 1]);
+            int newSign = (int) Math.signum(levels[i] - levels[i - 1]);
 
             if (diff > 3 || diff < 1 || newSign + sign == 0) {
                 return false;
@@ -41,4 +67,3 @@ public class Task1 {
         return true;
     }
 }
-
@@ -1,37 +1,90 @@
 package exe.tigrulya.day2;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.ParallelLineParser.Rows;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
+public class Task2 implements Solver<Rows, Long>, StreamingSolver<Long> {
+    private static final int MAX_REMOVED_LEVELS = 1;
+
+    /**
+     * Checks the report again with each level skipped in turn, kept as the oracle for {@link ReportSafety}.
+     */
+    public static class Reference extends Task2 {
+        @Override
+        public Long solve(Rows reports) {
+            long safeReports = 0;
+            for (int report = 0; report < reports.count(); ++report) {
+                if (isSafeReport(reports.values(), reports.start(report), reports.end(report), -1)) {
+                    ++safeReports;
+                }
+            }
+            return safeReports;
+        }
+    }
+
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/2.txt"))) {
-            long safeReports = lines.map(Task2::parseReport)
-                    .filter(report -> isSafeReport(report, -1))
-                    .count();
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/2.txt")));
+    }
 
-            System.out.println("Result: " + safeReports);
+    @Override
+    public Rows parse(Path input) throws IOException {
+        return ParallelLineParser.rows(input);
+    }
+
+    @Override
+    public Long solve(Rows reports) {
+        // most reports that are safe at all are safe as they are, only the rest need the chain search
+        SafetyBatch batch = SafetyBatch.evaluate(reports);
+        ReportSafety safety = new ReportSafety();
+        long safeReports = 0;
+        for (int report = 0; report < reports.count(); ++report) {
+            if (batch.isSafe(report) || safety.isSafe(reports.values(), reports.start(report), reports.end(report), MAX_REMOVED_LEVELS)) {
+                ++safeReports;
+            }
         }
+        return safeReports;
     }
 
-    private static List<Long> parseReport(String line) {
-        String[] tokens = line.split("\\s+");
-        return Arrays.stream(tokens)
-                .map(Long::parseLong)
-                .toList();
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        ReportSafety safety = new ReportSafety();
+        long safeReports = 0;
+        long[] levels = new long[16];
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasNextNumber()) {
+                int count = 0;
+                do {
+                    if (count == levels.length) {
+                        levels = Arrays.copyOf(levels, count * 2);
+                    }
+                    levels[count++] = cursor.nextLong();
+                } while (!cursor.endOfLine());
+
+                if (safety.isSafe(levels, 0, count, MAX_REMOVED_LEVELS)) {
+                    ++safeReports;
+                }
+            }
+        }
+        return safeReports;
     }
 
-    private static boolean isSafeReport(List<Long> levels, int positionToSkip) {
+    private static boolean isSafeReport(long[] levels, int from, int to, int positionToSkip) {
         int sign = 0;
         int lastIdx = 0;
         boolean isFirstNum = true;
 
-        for (int i = 0; i < levels.size(); ++i) {
+        for (int i = from; i < to; ++i) {
             if (positionToSkip == i) {
                 continue;
             }
@@ -42,11 +95,11 @@ public class Task2 {
                 continue;
             }
 
-            long diff = Math.abs(levels.get(i) - levels.get(lastIdx));
-            int newSign = (int) Math.signum(levels.get(i) - levels.get(lastIdx));
+            long diff = Math.abs(levels[i] - levels[lastIdx]);
+            int newSign = (int) Math.signum(levels[i] - levels[lastIdx]);
 
             if (diff > 3 || diff < 1 || newSign + sign == 0) {
-                return positionToSkip < levels.size() && isSafeReport(levels, positionToSkip + 1);
+                return positionToSkip < to && isSafeReport(levels, from, to, Math.max(positionToSkip, from - 1) + 1);
             }
 
             sign = newSign;
@@ -56,4 +109,3 @@ public class Task2 {
         return true;
     }
 }
-
@@ -1,157 +1,141 @@
 package exe.tigrulya.day20;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.graph.Graph;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
+import exe.tigrulya.trace.Trace;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Set;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
-    public record Coordinates(int x, int y) {
-        public Coordinates sum(Coordinates other) {
-            return new Coordinates(x + other.x, y + other.y);
+public class Task1 implements Solver<Task1.Input, Long> {
+    public record Field(Grid field, GraphSearch search) {
+        public Field(Grid field, String solver) {
+            this(field, GraphSearch.forCurrentThread(field.size(), solver));
         }
-    }
 
-    public record Field(List<List<Character>> field) {
-        public Optional<Long> findShortestPath(Coordinates start, Coordinates end) {
-            return Optional.ofNullable(
-                    buildPathScores(start).get(end)
-            );
+        public Optional<Long> findShortestPath(int start, int end) {
+            search.bfs(Graph.grid(field, this::isFree), start, end);
+            return search.isReached(end) ? Optional.of(search.distance(end)) : Optional.empty();
         }
 
-        private Map<Coordinates, Long> buildPathScores(Coordinates start) {
-            Map<Coordinates, Long> scores = new HashMap<>();
-            Set<Coordinates> visitedNodes = new HashSet<>();
-            Set<Coordinates> queue = new HashSet<>();
-
-            queue.add(start);
-            scores.put(start, 0L);
-
-            while (!queue.isEmpty()) {
-                Coordinates vertex = pollWithMinimalScore(queue, scores);
-                for (var neighbour : getNeighbours(vertex)) {
-                    if (visitedNodes.contains(neighbour)) {
-                        continue;
-                    }
-
-                    long newNeighbourScore = scores.get(vertex) + 1;
-                    if (newNeighbourScore < scores.getOrDefault(neighbour, Long.MAX_VALUE)) {
-                        scores.put(neighbour, newNeighbourScore);
-                    }
-
-                    queue.add(neighbour);
-                }
-
-                visitedNodes.add(vertex);
-            }
+        public long[] distancesFrom(int start) {
+            return search.bfs(Graph.grid(field, this::isFree), start, GraphSearch.NO_NODE)
+                    .distances()
+                    .clone();
+        }
 
-            return scores;
+        private boolean isFree(int position) {
+            return !field.isBorder(position) && field.get(position) != '#';
         }
 
-        private Coordinates pollWithMinimalScore(
-                Set<Coordinates> queue,
-                Map<Coordinates, Long> scores) {
-            return queue.stream()
-                    .min(Comparator.comparingLong(scores::get))
-                    .map(coordinates -> {
-                        queue.remove(coordinates);
-                        return coordinates;
-                    })
-                    .orElseThrow();
+        public void set(int position, char value) {
+            field.set(position, (byte) value);
         }
+    }
 
-        private List<Coordinates> getNeighbours(Coordinates position) {
-            List<Coordinates> results = new ArrayList<>();
-            for (var direction : Direction.values()) {
-                Coordinates maybeNeighbour = position.sum(direction.shift);
-                getNotObstacle(maybeNeighbour).ifPresent(neighbour ->
-                        results.add(maybeNeighbour));
-            }
+    public record Input(Grid field, int startPosition, int targetPosition) {
+    }
 
-            return results;
+    /**
+     * Searches the whole track again for every removed wall, kept as the oracle for the two-search solution.
+     */
+    public static class Reference extends Task1 {
+        public Reference() {
         }
 
-        private Optional<Character> getNotObstacle(Coordinates coordinates) {
-            return get(field, coordinates.y)
-                    .flatMap(row -> get(row, coordinates.x))
-                    .filter(ch -> ch != '#');
+        public Reference(long threshold) {
+            super(threshold);
         }
 
-        private Character unsafeGet(Coordinates coordinates) {
-            return field.get(coordinates.y).get(coordinates.x);
+        @Override
+        public Long solve(Input input) {
+            return findGoodCheatCodes(new Field(input.field.copy(), "day20.Task1"), input.startPosition, input.targetPosition, threshold);
         }
+    }
 
-        private <T> Optional<T> get(List<T> values, int idx) {
-            return Optional.of(values)
-                    .filter(ignore -> idx >= 0 && idx < values.size())
-                    .map(ignore -> values.get(idx));
-        }
+    final long threshold;
 
-        public void set(Coordinates coordinates, char value) {
-            field.get(coordinates.y).set(coordinates.x, value);
-        }
+    public Task1() {
+        this(100);
+    }
+
+    public Task1(long threshold) {
+        this.threshold = threshold;
     }
 
-    public enum Direction {
-        UP(0, -1),
-        LEFT(-1, 0),
-        DOWN(0, 1),
-        RIGHT(1, 0);
+    public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/20.txt")));
+    }
 
-        private final Coordinates shift;
+    @Override
+    public Input parse(Path input) throws IOException {
+        Grid field = Grid.parse(input);
+        return new Input(field, field.indexOf((byte) 'S'), field.indexOf((byte) 'E'));
+    }
+
+    @Override
+    public Long solve(Input input) {
+        Field field = new Field(input.field, "day20.Task1");
+        // the shortest path through a removed wall enters it from one neighbour and leaves to another,
+        // and both halves avoid the wall, so distances on the untouched track from both ends are enough
+        long[] fromStart = field.distancesFrom(input.startPosition);
+        long[] toEnd = field.distancesFrom(input.targetPosition);
+        long baseResult = fromStart[input.targetPosition];
+        if (baseResult == GraphSearch.UNREACHABLE) {
+            throw new NoSuchElementException("End isn't reachable from start");
+        }
+
+        Map<Long, Long> improvementCounts = new HashMap<>();
+        for (int obstacle : findObstaclesToRemove(field)) {
+            long improvement = baseResult - Math.min(baseResult, shortestPathThrough(field.field, obstacle, fromStart, toEnd));
+            if (improvement >= threshold) {
+                improvementCounts.merge(improvement, 1L, Long::sum);
+            }
+        }
 
-        Direction(int xShift, int yShift) {
-            this.shift = new Coordinates(xShift, yShift);
+        if (Trace.DEBUG) {
+            Trace.debug("%s", improvementCounts);
         }
+        return improvementCounts.values()
+                .stream()
+                .reduce(0L, Long::sum);
     }
 
-    public static void main(String[] args) throws IOException {
-        List<List<Character>> fieldRows = new ArrayList<>();
-        int y = -1;
-
-        Coordinates startPosition = new Coordinates(0, 0);
-        Coordinates targetPosition = new Coordinates(0, 0);
-
-        try (var lines = Files.lines(getResource("input/20.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                ++y;
-                List<Character> row = new ArrayList<>();
-                for (int x = 0; x < line.length(); ++x) {
-                    row.add(line.charAt(x));
-
-                    if (line.charAt(x) == 'S') {
-                        startPosition = new Coordinates(x, y);
-                    }
-
-                    if (line.charAt(x) == 'E') {
-                        targetPosition = new Coordinates(x, y);
-                    }
+    private static long shortestPathThrough(Grid grid, int obstacle, long[] fromStart, long[] toEnd) {
+        long shortest = GraphSearch.UNREACHABLE;
+        for (int in = Grid.UP; in <= Grid.LEFT; ++in) {
+            long toObstacle = fromStart[grid.neighbour(obstacle, in)];
+            if (toObstacle == GraphSearch.UNREACHABLE) {
+                continue;
+            }
+            for (int out = Grid.UP; out <= Grid.LEFT; ++out) {
+                long fromObstacle = toEnd[grid.neighbour(obstacle, out)];
+                if (out != in && fromObstacle != GraphSearch.UNREACHABLE) {
+                    shortest = Math.min(shortest, toObstacle + 2 + fromObstacle);
                 }
-                fieldRows.add(row);
             }
         }
-
-        Field field = new Field(fieldRows);
-        long result = findGoodCheatCodes(field, startPosition, targetPosition, 100);
-        System.out.println("Result: " + result);
+        return shortest;
     }
 
     private static long findGoodCheatCodes(
-            Field field, Coordinates startPosition, Coordinates endPosition, long threshold) {
+            Field field, int startPosition, int endPosition, long threshold) {
         // for untouched field result is always unique
         long baseResult = field.findShortestPath(startPosition, endPosition).orElseThrow();
 
         Map<Long, Long> improvementCounts = new HashMap<>();
-        for (Coordinates obstacle : findObstaclesToRemove(field)) {
+        for (int obstacle : findObstaclesToRemove(field)) {
             field.set(obstacle, '.');
 
             long improvement = baseResult - field.findShortestPath(startPosition, endPosition).orElseThrow();
@@ -162,22 +146,25 @@ public class Task1 {
             field.set(obstacle, '#');
         }
 
-        System.out.println(improvementCounts);
+        if (Trace.DEBUG) {
+            Trace.debug("%s", improvementCounts);
+        }
         return improvementCounts.values()
                 .stream()
                 .reduce(0L, Long::sum);
     }
 
-    private static List<Coordinates> findObstaclesToRemove(Field field) {
-        List<Coordinates> obstacles = new ArrayList<>();
-        for (int y = 1; y < field.field.size() - 1; ++y) {
-            for (int x = 1; x < field.field.get(y).size() - 1; ++x) {
-                Coordinates position = new Coordinates(x, y);
-                if (field.unsafeGet(position) == '#' && (
-                        field.getNotObstacle(position.sum(Direction.LEFT.shift)).isPresent()
-                                && field.getNotObstacle(position.sum(Direction.RIGHT.shift)).isPresent()
-                                || field.getNotObstacle(position.sum(Direction.DOWN.shift)).isPresent()
-                                && field.getNotObstacle(position.sum(Direction.UP.shift)).isPresent())) {
+    private static List<Integer> findObstaclesToRemove(Field field) {
+        List<Integer> obstacles = new ArrayList<>();
+        Grid grid = field.field;
+        for (int y = 1; y < grid.rows() - 1; ++y) {
+            for (int x = 1; x < grid.columns() - 1; ++x) {
+                int position = grid.id(x, y);
+                if (grid.get(position) == '#' && (
+                        field.isFree(grid.neighbour(position, Grid.LEFT))
+                                && field.isFree(grid.neighbour(position, Grid.RIGHT))
+                                || field.isFree(grid.neighbour(position, Grid.DOWN))
+                                && field.isFree(grid.neighbour(position, Grid.UP)))) {
                     obstacles.add(position);
                 }
             }
@@ -2,31 +2,56 @@ package exe.tigrulya.day3;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
 import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
-public class Task1 {
+public class Task1 implements Solver<List<String>, Long>, StreamingSolver<Long> {
     private static final Pattern PATTERN =
         Pattern.compile("(?<=mul\\()(\\d+?),(\\d+?)(?=\\))");
 
-    private static final Matcher MATCHER =
-        PATTERN.matcher("");
+    private final Matcher matcher = PATTERN.matcher("");
 
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/3.txt"))) {
-            long result = lines.flatMap(Task1::getMultiplicationResults)
-                .reduce(0L, Long::sum);
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/3.txt")));
+    }
+
+    @Override
+    public List<String> parse(Path input) throws IOException {
+        return Files.readAllLines(input);
+    }
+
+    @Override
+    public Long solve(List<String> lines) {
+        return lines.stream()
+            .flatMap(this::getMultiplicationResults)
+            .reduce(0L, Long::sum);
+    }
 
-            System.out.println("Result: " + result);
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        long sum = 0;
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasRemaining()) {
+                sum += getMultiplicationResults(cursor.nextLine())
+                    .reduce(0L, Long::sum);
+            }
         }
+        return sum;
     }
 
-    private static Stream<Long> getMultiplicationResults(String line) {
-        MATCHER.reset(line);
-        return MATCHER.results()
+    private Stream<Long> getMultiplicationResults(CharSequence line) {
+        matcher.reset(line);
+        return matcher.results()
             .map(matchResult -> Long.parseLong(matchResult.group(1))
                 * Long.parseLong(matchResult.group(2)));
     }
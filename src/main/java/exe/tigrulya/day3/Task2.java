@@ -2,8 +2,13 @@ package exe.tigrulya.day3;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
 import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -17,39 +22,61 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class Task2 {
-    private static final RegexFinder BASE_MATCHER =
+public class Task2 implements Solver<List<String>, Long>, StreamingSolver<Long> {
+    private final RegexFinder baseMatcher =
         new RegexFinder("(?<=mul\\()(\\d+?),(\\d+?)(?=\\))");
 
-    private static final RegexFinder DO_MATCHER =
+    private final RegexFinder doMatcher =
         new RegexFinder("do\\(\\)");
 
-    private static final RegexFinder DONT_MATCHER =
+    private final RegexFinder dontMatcher =
         new RegexFinder("don't\\(\\)");
 
-    private static boolean baseAllowance = true;
+    private boolean baseAllowance = true;
 
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/3.txt"))) {
-            long result = lines.flatMap(Task2::getMultiplicationResults)
-                .reduce(0L, Long::sum);
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/3.txt")));
+    }
+
+    @Override
+    public List<String> parse(Path input) throws IOException {
+        return Files.readAllLines(input);
+    }
+
+    @Override
+    public Long solve(List<String> lines) {
+        baseAllowance = true;
+        return lines.stream()
+            .flatMap(this::getMultiplicationResults)
+            .reduce(0L, Long::sum);
+    }
 
-            System.out.println("Result: " + result);
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        baseAllowance = true;
+        long sum = 0;
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasRemaining()) {
+                sum += getMultiplicationResults(cursor.nextLine())
+                    .reduce(0L, Long::sum);
+            }
         }
+        return sum;
     }
 
-    private static Stream<Long> getMultiplicationResults(String line) {
+    private Stream<Long> getMultiplicationResults(CharSequence line) {
         List<Interval> skipIntervals = getSkipIntervals(line);
 
-        return BASE_MATCHER.results(line)
+        return baseMatcher.results(line)
             .filter(matchResult -> skipIntervals.stream()
                 .noneMatch(interval -> interval.isInside(matchResult)))
             .map(matchResult -> Long.parseLong(matchResult.group(1))
                 * Long.parseLong(matchResult.group(2)));
     }
 
-    private static List<Interval> getSkipIntervals(String line) {
-        NavigableMap<Integer, Integer> doFuncIdxs = DO_MATCHER.resultIndexes(line)
+    private List<Interval> getSkipIntervals(CharSequence line) {
+        NavigableMap<Integer, Integer> doFuncIdxs = doMatcher.resultIndexes(line)
             .collect(Collectors.toMap(
                 Function.identity(),
                 Function.identity(),
@@ -57,7 +84,7 @@ public class Task2 {
                 TreeMap::new
             ));
 
-        List<Interval> results = DONT_MATCHER.resultIndexes(line)
+        List<Interval> results = dontMatcher.resultIndexes(line)
             .map(dontFuncIdx -> getSkipInterval(doFuncIdxs, dontFuncIdx))
             .collect(Collectors.toCollection(ArrayList::new));
 
@@ -94,12 +121,12 @@ public class Task2 {
             this.matcher = pattern.matcher("");
         }
 
-        public Stream<MatchResult> results(String str) {
+        public Stream<MatchResult> results(CharSequence str) {
             matcher.reset(str);
             return matcher.results();
         }
 
-        public Stream<Integer> resultIndexes(String str) {
+        public Stream<Integer> resultIndexes(CharSequence str) {
             return results(str)
                 .map(MatchResult::start);
         }
@@ -1,77 +1,77 @@
 package exe.tigrulya.day4;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<Grid, Long> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/4.txt"))) {
-            char[][] field = lines.map(String::toCharArray)
-                    .toArray(char[][]::new);
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/4.txt")));
+    }
 
-            var wordFinder = new WordFinder(field, "XMAS");
-            System.out.println("Result: " + wordFinder.countWord());
-        }
+    @Override
+    public Grid parse(Path input) throws IOException {
+        return Grid.parse(input);
     }
 
+    @Override
+    public Long solve(Grid field) {
+        return new WordFinder(field, "XMAS").countWord();
+    }
 
     public static class WordFinder {
-        private final char[][] field;
-        private final char[] word;
+        private final Grid field;
+        private final byte[] word;
+        private final int[] shifts;
 
-        public WordFinder(char[][] field, String word) {
+        public WordFinder(Grid field, String word) {
             this.field = field;
-            this.word = word.toCharArray();
+            this.word = word.getBytes();
+            this.shifts = new int[] {
+                    // move in x-axis
+                    field.offset(1, 0), field.offset(-1, 0),
+                    // move in y-axis
+                    field.offset(0, 1), field.offset(0, -1),
+                    // move diagonally
+                    field.offset(-1, 1), field.offset(1, 1), field.offset(1, -1), field.offset(-1, -1)
+            };
         }
 
         private long countWord() {
             long wordsCount = 0;
 
-            for (int y = 0; y < field.length; ++y) {
-                for (int x = 0; x < field[y].length; ++x) {
-                    // move in x-axis
-                    wordsCount += wordOccurrences(x, y, 1, 0);
-                    wordsCount += wordOccurrences(x, y, -1, 0);
-
-                    // move in y-axis
-                    wordsCount += wordOccurrences(x, y, 0, 1);
-                    wordsCount += wordOccurrences(x, y, 0, -1);
+            for (int y = 0; y < field.rows(); ++y) {
+                for (int x = 0; x < field.columns(); ++x) {
+                    int id = field.id(x, y);
+                    if (field.get(id) != word[0]) {
+                        continue;
+                    }
 
-                    // move diagonally
-                    wordsCount += wordOccurrences(x, y, -1, 1);
-                    wordsCount += wordOccurrences(x, y, 1, 1);
-                    wordsCount += wordOccurrences(x, y, 1, -1);
-                    wordsCount += wordOccurrences(x, y, -1, -1);
+                    for (int shift : shifts) {
+                        wordsCount += wordOccurrences(id, shift);
+                    }
                 }
             }
 
             return wordsCount;
         }
 
-        private int wordOccurrences(int x, int y, int xShift, int yShift) {
-            int wordLetter = 0;
-
-            while (wordLetter < word.length) {
-                if (!isSafeX(x) || !isSafeY(y) || field[y][x] != word[wordLetter++]) {
+        private int wordOccurrences(int id, int shift) {
+            // a word never contains the border, so the first cell off the field ends the match
+            for (byte letter : word) {
+                if (field.get(id) != letter) {
                     return 0;
                 }
-                
-                x += xShift;
-                y += yShift;
-            }
-            
-            return 1;
-        }
 
-        private boolean isSafeY(int idx) {
-            return idx < field.length && idx >= 0;
-        }
+                id += shift;
+            }
 
-        private boolean isSafeX(int idx) {
-            return field.length > 0 && idx < field[0].length && idx >= 0;
+            return 1;
         }
     }
 }
-
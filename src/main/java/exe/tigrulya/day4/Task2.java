@@ -1,51 +1,63 @@
 package exe.tigrulya.day4;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.grid.Grid;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
+public class Task2 implements Solver<Grid, Long> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/4.txt"))) {
-            char[][] field = lines.map(String::toCharArray)
-                    .toArray(char[][]::new);
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/4.txt")));
+    }
 
-            var wordFinder = new CellFinder(field, 'A', "MAS");
-            System.out.println("Result: " + wordFinder.cellsCount());
-        }
+    @Override
+    public Grid parse(Path input) throws IOException {
+        return Grid.parse(input);
     }
 
+    @Override
+    public Long solve(Grid field) {
+        return new CellFinder(field, 'A', "MAS").cellsCount();
+    }
 
     public static class CellFinder {
-        private final char[][] field;
-        private final char kernel;
-        private final char[] word;
+        private final Grid field;
+        private final byte kernel;
+        private final byte[] word;
 
-        public CellFinder(char[][] field, char kernel, String word) {
+        public CellFinder(Grid field, char kernel, String word) {
             this.field = field;
-            this.kernel = kernel;
-            this.word = word.toCharArray();
+            this.kernel = (byte) kernel;
+            this.word = word.getBytes();
         }
 
         private long cellsCount() {
             long cellsCount = 0;
             int margin = word.length / 2;
-
-            for (int y = margin; y < field.length - margin; ++y) {
-                for (int x = margin; x < field[y].length - margin; ++x) {
-                    if (field[y][x] != kernel) {
+            int bottomLeft = field.offset(-1, 1);
+            int topRight = field.offset(1, -1);
+            int topLeft = field.offset(-1, -1);
+            int bottomRight = field.offset(1, 1);
+
+            for (int y = margin; y < field.rows() - margin; ++y) {
+                for (int x = margin; x < field.columns() - margin; ++x) {
+                    int id = field.id(x, y);
+                    if (field.get(id) != kernel) {
                         continue;
                     }
 
                     if ((// word starting from bottom left point
-                            isWordOccurrence(x - 1, y + 1, 1, -1)
+                            isWordOccurrence(id + bottomLeft, topRight)
                                     // word starting from top right point
-                                    || isWordOccurrence(x + 1, y - 1, -1, 1))
+                                    || isWordOccurrence(id + topRight, bottomLeft))
                                     // word starting from top left point
-                                    && ((isWordOccurrence(x - 1, y - 1, 1, 1)
+                                    && ((isWordOccurrence(id + topLeft, bottomRight)
                                     // word starting from bottom right point
-                                    || isWordOccurrence(x + 1, y + 1, -1, -1)))) {
+                                    || isWordOccurrence(id + bottomRight, topLeft)))) {
                         ++cellsCount;
                     }
                 }
@@ -54,28 +66,16 @@ public class Task2 {
             return cellsCount;
         }
 
-        private boolean isWordOccurrence(int x, int y, int xShift, int yShift) {
-            int wordLetter = 0;
-
-            while (wordLetter < word.length) {
-                if (!isSafeX(x) || !isSafeY(y) || field[y][x] != word[wordLetter++]) {
+        private boolean isWordOccurrence(int id, int shift) {
+            for (byte letter : word) {
+                if (field.get(id) != letter) {
                     return false;
                 }
 
-                x += xShift;
-                y += yShift;
+                id += shift;
             }
 
             return true;
         }
-
-        private boolean isSafeY(int idx) {
-            return idx < field.length && idx >= 0;
-        }
-
-        private boolean isSafeX(int idx) {
-            return field.length > 0 && idx < field[0].length && idx >= 0;
-        }
     }
 }
-
@@ -1,8 +1,11 @@
 package exe.tigrulya.day5;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.Solver;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -11,42 +14,52 @@ import java.util.Set;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<Task1.Input, Long> {
+    public record Input(Map<Integer, Set<Integer>> rules, List<List<Integer>> updates) {
+    }
+
     public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/5.txt")));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
         Map<Integer, Set<Integer>> rules = new HashMap<>();
+        List<List<Integer>> updates = new ArrayList<>();
 
-        boolean delimiterHandled = false;
-        long result = 0;
+        try (var cursor = InputCursor.open(input)) {
+            while (!cursor.skipBlankLine()) {
+                rules.computeIfAbsent(cursor.nextInt(), k -> new HashSet<>())
+                        .add(cursor.nextInt());
+                cursor.skipLine();
+            }
 
-        try (var lines = Files.lines(getResource("input/5.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                if (line.isBlank()) {
-                    delimiterHandled = true;
-                    continue;
-                }
+            while (cursor.hasNextNumber()) {
+                updates.add(parsePages(cursor));
+            }
+        }
 
-                if (!delimiterHandled) {
-                    List<Integer> pages = parsePages(line, "\\|");
-                    rules.computeIfAbsent(pages.getFirst(), k -> new HashSet<>())
-                            .add(pages.getLast());
-                    continue;
-                }
+        return new Input(rules, updates);
+    }
 
-                List<Integer> pages = parsePages(line, ",");
-                if (isCorrect(rules, pages)) {
-                    result += pages.get(pages.size() / 2);
-                }
+    @Override
+    public Long solve(Input input) {
+        long result = 0;
+        for (var pages : input.updates) {
+            if (isCorrect(input.rules, pages)) {
+                result += pages.get(pages.size() / 2);
             }
-
-            System.out.println("Result: " + result);
         }
+        return result;
     }
 
-    private static List<Integer> parsePages(String line, String delimiter) {
-        return Arrays.stream(line.split(delimiter))
-                .map(Integer::parseInt)
-                .toList();
+    private static List<Integer> parsePages(InputCursor cursor) {
+        List<Integer> pages = new ArrayList<>();
+        do {
+            pages.add(cursor.nextInt());
+        } while (!cursor.endOfLine());
+        return pages;
     }
 
     private static boolean isCorrect(Map<Integer, Set<Integer>> rules, List<Integer> pages) {
@@ -1,10 +1,12 @@
 package exe.tigrulya.day5;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.Solver;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -18,40 +20,50 @@ import java.util.stream.Collectors;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
-    public static void main(String[] args) throws IOException {
-        Map<Integer, Set<Integer>> rules = new HashMap<>();
+public class Task2 implements Solver<Task2.Input, Long> {
+    public record Input(Map<Integer, Set<Integer>> rules, List<List<Integer>> updates) {
+    }
 
-        boolean delimiterHandled = false;
-        long result = 0;
+    public static void main(String[] args) throws IOException {
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/5.txt")));
+    }
 
-        try (var lines = Files.lines(getResource("input/5.txt"))) {
-            Iterable<String> linesIterable = lines::iterator;
-            for (var line : linesIterable) {
-                if (line.isBlank()) {
-                    delimiterHandled = true;
-                    continue;
-                }
+    @Override
+    public Input parse(Path input) throws IOException {
+        Map<Integer, Set<Integer>> rules = new HashMap<>();
+        List<List<Integer>> updates = new ArrayList<>();
 
-                if (!delimiterHandled) {
-                    List<Integer> pages = parsePages(line, "\\|");
-                    rules.computeIfAbsent(pages.getFirst(), k -> new HashSet<>())
-                            .add(pages.getLast());
-                    continue;
-                }
+        try (var cursor = InputCursor.open(input)) {
+            while (!cursor.skipBlankLine()) {
+                rules.computeIfAbsent(cursor.nextInt(), k -> new HashSet<>())
+                        .add(cursor.nextInt());
+                cursor.skipLine();
+            }
 
-                List<Integer> pages = parsePages(line, ",");
-                result += getMiddleFixedPage(rules, pages).orElse(0);
+            while (cursor.hasNextNumber()) {
+                updates.add(parsePages(cursor));
             }
+        }
 
-            System.out.println("Result: " + result);
+        return new Input(rules, updates);
+    }
+
+    @Override
+    public Long solve(Input input) {
+        long result = 0;
+        for (var pages : input.updates) {
+            result += getMiddleFixedPage(input.rules, pages).orElse(0);
         }
+        return result;
     }
 
-    private static List<Integer> parsePages(String line, String delimiter) {
-        return Arrays.stream(line.split(delimiter))
-                .map(Integer::parseInt)
-                .toList();
+    private static List<Integer> parsePages(InputCursor cursor) {
+        List<Integer> pages = new ArrayList<>();
+        do {
+            pages.add(cursor.nextInt());
+        } while (!cursor.endOfLine());
+        return pages;
     }
 
     private static Optional<Integer> getMiddleFixedPage(Map<Integer, Set<Integer>> rules, List<Integer> pages) {
@@ -1,34 +1,63 @@
 package exe.tigrulya.day7;
 
+import exe.tigrulya.InputCursor;
+import exe.tigrulya.ParallelLineParser;
+import exe.tigrulya.Solver;
+import exe.tigrulya.StreamingSolver;
+
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.Arrays;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
+public class Task1 implements Solver<List<Task1.Equation>, Long>, StreamingSolver<Long> {
     public record Equation(long result, List<Long> operands) {
-        public static Equation parseFrom(String line) {
-            String[] split = line.split(": ");
-            List<Long> operands = Arrays.stream(split[1].split(" "))
-                    .map(Long::parseLong)
-                    .toList();
+        public static Equation parseFrom(InputCursor cursor) {
+            long result = cursor.nextLong();
+
+            List<Long> operands = new ArrayList<>();
+            do {
+                operands.add(cursor.nextLong());
+            } while (!cursor.endOfLine());
 
-            return new Equation(Long.parseLong(split[0]), operands);
+            return new Equation(result, operands);
         }
     }
 
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/7.txt"))) {
-            long totalSum = lines.map(Equation::parseFrom)
-                    .filter(equation -> new EquationSolver(equation).isPossible())
-                    .mapToLong(equation -> equation.result)
-                    .sum();
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/7.txt")));
+    }
+
+    @Override
+    public List<Equation> parse(Path input) throws IOException {
+        return ParallelLineParser.records(input, 0, Equation::parseFrom);
+    }
+
+    @Override
+    public Long solve(List<Equation> equations) {
+        return equations.stream()
+                .filter(equation -> new EquationSolver(equation).isPossible())
+                .mapToLong(equation -> equation.result)
+                .sum();
+    }
 
-            System.out.println("Result: " + totalSum);
+    @Override
+    public Long solve(ReadableByteChannel input) throws IOException {
+        long calibrationResult = 0;
+        try (var cursor = InputCursor.of(input)) {
+            while (cursor.hasNextNumber()) {
+                Equation equation = Equation.parseFrom(cursor);
+                if (new EquationSolver(equation).isPossible()) {
+                    calibrationResult += equation.result;
+                }
+            }
         }
+        return calibrationResult;
     }
 
     public static class EquationSolver {
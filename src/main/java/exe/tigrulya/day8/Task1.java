@@ -1,37 +1,42 @@
 package exe.tigrulya.day8;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.collections.LongHashSet;
+import exe.tigrulya.grid.PackedCoordinates;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task1 {
-    public static Set<Vector> antinodes = new HashSet<>();
-
+public class Task1 implements Solver<Task1.Input, Long> {
     public record Vector(int x, int y) {
-        public Vector difference(Vector other) {
-            return new Vector(other.x - x, other.y - y);
+        public long packed() {
+            return PackedCoordinates.pack(x, y);
         }
+    }
 
-        public Vector antinode(Vector other) {
-            Vector difference = difference(other);
-            return new Vector(x - difference.x, y - difference.y);
-        }
+    public record Input(Map<Character, List<Vector>> antennasByFrequencies, int xSize, int ySize) {
     }
 
     public static void main(String[] args) throws IOException {
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/8.txt")));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
         Map<Character, List<Vector>> antennasByFrequencies = new HashMap<>();
         int currentX = 0;
         int currentY = 0;
         int xSize = 0;
 
-        try (var lines = Files.lines(getResource("input/8.txt"))) {
+        try (var lines = Files.lines(input)) {
             Iterable<String> linesIterable = lines::iterator;
             for (var line : linesIterable) {
                 for (var ch : line.toCharArray()) {
@@ -48,29 +53,37 @@ public class Task1 {
             }
         }
 
-        long antinodesCount = countAntinodes(antennasByFrequencies, xSize, currentY);
+        return new Input(antennasByFrequencies, xSize, currentY);
+    }
 
-        System.out.println("Result: " + antinodesCount);
+    @Override
+    public Long solve(Input input) {
+        return (long) findAntinodes(input).size();
     }
 
-    private static long countAntinodes(Map<Character, List<Vector>> antennasByFrequencies, int xSize, int ySize) {
-        for (var antennasLocations : antennasByFrequencies.values()) {
+    private static LongHashSet findAntinodes(Input input) {
+        LongHashSet antinodes = new LongHashSet();
+        int xSize = input.xSize;
+        int ySize = input.ySize;
+
+        for (var antennasLocations : input.antennasByFrequencies.values()) {
             for (int i = 0; i < antennasLocations.size(); ++i) {
                 for (int j = 0; j < antennasLocations.size(); ++j) {
                     if (i == j) {
                         continue;
                     }
 
-                    Vector antinode = antennasLocations.get(i).antinode(antennasLocations.get(j));
-                    if (antinode.x < xSize && antinode.x >= 0
-                            && antinode.y < ySize && antinode.y >= 0) {
+                    long antenna = antennasLocations.get(i).packed();
+                    long step = PackedCoordinates.subtract(antenna, antennasLocations.get(j).packed());
+                    long antinode = PackedCoordinates.add(antenna, step);
+                    if (PackedCoordinates.isInside(antinode, xSize, ySize)) {
                         antinodes.add(antinode);
                     }
                 }
             }
         }
 
-        return antinodes.size();
+        return antinodes;
     }
 }
 
@@ -1,38 +1,46 @@
 package exe.tigrulya.day8;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.collections.LongHashSet;
+import exe.tigrulya.grid.PackedCoordinates;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static exe.tigrulya.Utils.getResource;
 
-public class Task2 {
-    public static Set<Vector> antinodes = new HashSet<>();
-
+public class Task2 implements Solver<Task2.Input, Long> {
     public record Vector(int x, int y) {
-        public Vector difference(Vector other) {
-            return new Vector(other.x - x, other.y - y);
+        public long packed() {
+            return PackedCoordinates.pack(x, y);
         }
+    }
 
-        public Vector antinode(Vector other) {
-            Vector difference = difference(other);
-            return new Vector(x - difference.x, y - difference.y);
-        }
+    public record Input(Map<Character, List<Vector>> antennasByFrequencies, int xSize, int ySize) {
     }
 
     public static void main(String[] args) throws IOException {
+        Task2 task = new Task2();
+        Input input = task.parseRecorded(getResource("input/8.txt"));
+        print(input.antennasByFrequencies, findAntinodes(input), input.xSize, input.ySize);
+
+        System.out.println("Result: " + task.solveRecorded(input));
+    }
+
+    @Override
+    public Input parse(Path input) throws IOException {
         Map<Character, List<Vector>> antennasByFrequencies = new HashMap<>();
         int currentX = 0;
         int currentY = 0;
         int xSize = 0;
 
-        try (var lines = Files.lines(getResource("input/8.txt"))) {
+        try (var lines = Files.lines(input)) {
             Iterable<String> linesIterable = lines::iterator;
             for (var line : linesIterable) {
                 for (var ch : line.toCharArray()) {
@@ -49,48 +57,54 @@ public class Task2 {
             }
         }
 
-        long antinodesCount = countAntinodes(antennasByFrequencies, xSize, currentY);
-        print(antennasByFrequencies, xSize, currentY);
+        return new Input(antennasByFrequencies, xSize, currentY);
+    }
 
-        System.out.println("Result: " + antinodesCount);
+    @Override
+    public Long solve(Input input) {
+        return (long) findAntinodes(input).size();
     }
 
-    private static long countAntinodes(Map<Character, List<Vector>> antennasByFrequencies, int xSize, int ySize) {
-        for (var antennasLocations : antennasByFrequencies.values()) {
+    private static LongHashSet findAntinodes(Input input) {
+        LongHashSet antinodes = new LongHashSet();
+        int xSize = input.xSize;
+        int ySize = input.ySize;
+
+        for (var antennasLocations : input.antennasByFrequencies.values()) {
             for (int i = 0; i < antennasLocations.size(); ++i) {
                 for (int j = 0; j < antennasLocations.size(); ++j) {
                     if (i == j) {
                         continue;
                     }
 
-                    antinodes.add(antennasLocations.get(i));
+                    long antenna = antennasLocations.get(i).packed();
+                    antinodes.add(antenna);
 
-                    Vector antinode = antennasLocations.get(i).antinode(antennasLocations.get(j));
-                    Vector previousNode = antennasLocations.get(i);
-                    while (antinode.x < xSize && antinode.x >= 0
-                            && antinode.y < ySize && antinode.y >= 0) {
+                    // antinodes repeat with the distance between the antennas until the map ends
+                    long step = PackedCoordinates.subtract(antenna, antennasLocations.get(j).packed());
+                    for (long antinode = PackedCoordinates.add(antenna, step);
+                         PackedCoordinates.isInside(antinode, xSize, ySize);
+                         antinode = PackedCoordinates.add(antinode, step)) {
                         antinodes.add(antinode);
-                        Vector oldAntinode = antinode;
-                        antinode = antinode.antinode(previousNode);
-                        previousNode = oldAntinode;
                     }
                 }
             }
         }
 
-        return antinodes.size();
+        return antinodes;
     }
 
-    private static void print(Map<Character, List<Vector>> antennasByFrequencies, int xSize, int ySize) {
+    private static void print(Map<Character, List<Vector>> antennasByFrequencies,
+                              LongHashSet antinodes,
+                              int xSize,
+                              int ySize) {
         char[][] field = new char[ySize][xSize];
 
         for (var line : field) {
             Arrays.fill(line, '.');
         }
 
-        for (var antinode : antinodes) {
-            field[antinode.y][antinode.x] = '#';
-        }
+        antinodes.forEach(antinode -> field[PackedCoordinates.y(antinode)][PackedCoordinates.x(antinode)] = '#');
 
         for (var antennasLocations : antennasByFrequencies.entrySet()) {
             for (var antennaLocation : antennasLocations.getValue()) {
@@ -2,21 +2,32 @@ package exe.tigrulya.day9;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.Solver;
+import exe.tigrulya.trace.Trace;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
-public class Task1 {
+public class Task1 implements Solver<List<String>, Long> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/9.txt"))) {
-            long totalSum = lines.map(Task1::decode)
-                .mapToLong(Task1::checksum)
-                .sum();
+        Task1 task = new Task1();
+        System.out.println("Result: " + task.run(getResource("input/9.txt")));
+    }
 
-            System.out.println("Result: " + totalSum);
-        }
+    @Override
+    public List<String> parse(Path input) throws IOException {
+        return Files.readAllLines(input);
+    }
+
+    @Override
+    public Long solve(List<String> lines) {
+        return lines.stream()
+            .map(Task1::decode)
+            .mapToLong(Task1::checksum)
+            .sum();
     }
 
     private static List<Integer> decode(String encodedString) {
@@ -46,7 +57,9 @@ public class Task1 {
                 --lastFilePosition;
             }
 
-            System.out.println("first: " + firstFreePosition + " last: " + lastFilePosition);
+            if (Trace.TRACE) {
+                Trace.trace("first: %d last: %d", firstFreePosition, lastFilePosition);
+            }
             if (firstFreePosition >= lastFilePosition) {
                 break;
             }
@@ -2,22 +2,32 @@ package exe.tigrulya.day9;
 
 import static exe.tigrulya.Utils.getResource;
 
+import exe.tigrulya.Solver;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
 
-public class Task2 {
+public class Task2 implements Solver<List<String>, Long> {
     public static void main(String[] args) throws IOException {
-        try (var lines = Files.lines(getResource("input/9.txt"))) {
-            long totalSum = lines.map(Task2::decode)
-                .mapToLong(Task2::checksum)
-                .sum();
+        Task2 task = new Task2();
+        System.out.println("Result: " + task.run(getResource("input/9.txt")));
+    }
 
-            System.out.println("Result: " + totalSum);
-        }
+    @Override
+    public List<String> parse(Path input) throws IOException {
+        return Files.readAllLines(input);
+    }
+
+    @Override
+    public Long solve(List<String> lines) {
+        return lines.stream()
+            .map(Task2::decode)
+            .mapToLong(Task2::checksum)
+            .sum();
     }
 
     private static List<Integer> decode(String encodedString) {
@@ -0,0 +1,44 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day10Generator implements InputGenerator {
+    private static final int BASE_SIDE = 55;
+    private static final int PEAK_SPACING = 12;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        int peaksPerRow = (side + PEAK_SPACING - 1) / PEAK_SPACING;
+
+        // one peak in every PEAK_SPACING x PEAK_SPACING block
+        int[] peakX = new int[peaksPerRow * peaksPerRow];
+        int[] peakY = new int[peakX.length];
+        for (int i = 0; i < peakX.length; ++i) {
+            peakX[i] = (i % peaksPerRow) * PEAK_SPACING + random.nextInt(PEAK_SPACING);
+            peakY[i] = (i / peaksPerRow) * PEAK_SPACING + random.nextInt(PEAK_SPACING);
+        }
+
+        // height goes down by one per step away from the nearest peak, so hiking trails are everywhere
+        byte[][] rows = new byte[side][side];
+        for (int y = 0; y < side; ++y) {
+            int blockY = y / PEAK_SPACING;
+            for (int x = 0; x < side; ++x) {
+                int blockX = x / PEAK_SPACING;
+                int distance = Integer.MAX_VALUE;
+                for (int by = Math.max(0, blockY - 1); by <= Math.min(peaksPerRow - 1, blockY + 1); ++by) {
+                    for (int bx = Math.max(0, blockX - 1); bx <= Math.min(peaksPerRow - 1, blockX + 1); ++bx) {
+                        int peak = by * peaksPerRow + bx;
+                        distance = Math.min(distance, Math.abs(peakX[peak] - x) + Math.abs(peakY[peak] - y));
+                    }
+                }
+
+                int height = random.nextInt(10) == 0 ? random.nextInt(10) : Math.max(0, 9 - distance);
+                rows[y][x] = (byte) ('0' + height);
+            }
+        }
+        InputGenerator.writeGrid(rows, out);
+    }
+}
@@ -0,0 +1,21 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day11Generator implements InputGenerator {
+    private static final int BASE_STONES = 8;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        long stones = (long) BASE_STONES * scale;
+        for (long i = 0; i < stones; ++i) {
+            if (i > 0) {
+                out.write(' ');
+            }
+            out.write(Integer.toString(random.nextInt(10_000_000)));
+        }
+        out.write('\n');
+    }
+}
@@ -0,0 +1,36 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day12Generator implements InputGenerator {
+    private static final int BASE_SIDE = 140;
+    private static final int BLOCK_SIZE = 6;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        byte[][] rows = new byte[side][side];
+        int blocksPerRow = (side + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        byte[] blockPlants = new byte[blocksPerRow * blocksPerRow];
+        for (int i = 0; i < blockPlants.length; ++i) {
+            blockPlants[i] = (byte) ('A' + random.nextInt(26));
+        }
+
+        for (int y = 0; y < side; ++y) {
+            for (int x = 0; x < side; ++x) {
+                byte plant = blockPlants[(y / BLOCK_SIZE) * blocksPerRow + x / BLOCK_SIZE];
+                // ragged region borders: sometimes grow the plant from the left or from above
+                int roll = random.nextInt(8);
+                if (roll == 0 && x > 0) {
+                    plant = rows[y][x - 1];
+                } else if (roll == 1 && y > 0) {
+                    plant = rows[y - 1][x];
+                }
+                rows[y][x] = plant;
+            }
+        }
+        InputGenerator.writeGrid(rows, out);
+    }
+}
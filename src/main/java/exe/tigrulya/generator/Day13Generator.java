@@ -0,0 +1,39 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day13Generator implements InputGenerator {
+    private static final int BASE_MACHINES = 320;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        long machines = (long) BASE_MACHINES * scale;
+        for (long i = 0; i < machines; ++i) {
+            int ax = InputGenerator.between(random, 10, 99);
+            int ay = InputGenerator.between(random, 10, 99);
+            int bx = InputGenerator.between(random, 10, 99);
+            int by = InputGenerator.between(random, 10, 99);
+
+            int prizeX;
+            int prizeY;
+            if (random.nextBoolean()) {
+                int aPresses = random.nextInt(101);
+                int bPresses = random.nextInt(101);
+                prizeX = aPresses * ax + bPresses * bx;
+                prizeY = aPresses * ay + bPresses * by;
+            } else {
+                prizeX = InputGenerator.between(random, 1000, 20000);
+                prizeY = InputGenerator.between(random, 1000, 20000);
+            }
+
+            if (i > 0) {
+                out.write('\n');
+            }
+            out.write("Button A: X+" + ax + ", Y+" + ay + "\n");
+            out.write("Button B: X+" + bx + ", Y+" + by + "\n");
+            out.write("Prize: X=" + prizeX + ", Y=" + prizeY + "\n");
+        }
+    }
+}
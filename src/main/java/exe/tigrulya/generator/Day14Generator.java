@@ -0,0 +1,22 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day14Generator implements InputGenerator {
+    private static final int BASE_ROBOTS = 500;
+    // the solver expects the puzzle bathroom size
+    private static final int WIDTH = 101;
+    private static final int HEIGHT = 103;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        long robots = (long) BASE_ROBOTS * scale;
+        for (long i = 0; i < robots; ++i) {
+            out.write("p=" + random.nextInt(WIDTH) + "," + random.nextInt(HEIGHT)
+                + " v=" + InputGenerator.between(random, -99, 99) + "," + InputGenerator.between(random, -99, 99)
+                + "\n");
+        }
+    }
+}
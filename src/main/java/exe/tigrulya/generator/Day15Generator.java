@@ -0,0 +1,41 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day15Generator implements InputGenerator {
+    private static final int BASE_SIDE = 50;
+    private static final int BASE_MOVES = 20_000;
+    private static final int MOVES_LINE_LENGTH = 1000;
+    private static final byte[] MOVES = {'^', '>', 'v', '<'};
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        byte[][] rows = new byte[side][side];
+        for (int y = 0; y < side; ++y) {
+            for (int x = 0; x < side; ++x) {
+                boolean border = x == 0 || y == 0 || x == side - 1 || y == side - 1;
+                int roll = random.nextInt(20);
+                rows[y][x] = border || roll == 0
+                    ? (byte) '#'
+                    : roll < 6 ? (byte) 'O' : (byte) '.';
+            }
+        }
+        rows[side / 2][side / 2] = '@';
+        InputGenerator.writeGrid(rows, out);
+        out.write('\n');
+
+        long moves = (long) BASE_MOVES * scale;
+        char[] line = new char[MOVES_LINE_LENGTH];
+        for (long i = 0; i < moves; i += MOVES_LINE_LENGTH) {
+            int length = (int) Math.min(MOVES_LINE_LENGTH, moves - i);
+            for (int j = 0; j < length; ++j) {
+                line[j] = (char) MOVES[random.nextInt(MOVES.length)];
+            }
+            out.write(line, 0, length);
+            out.write('\n');
+        }
+    }
+}
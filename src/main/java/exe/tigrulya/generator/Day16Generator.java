@@ -0,0 +1,18 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day16Generator implements InputGenerator {
+    private static final int BASE_SIDE = 141;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.oddSide(BASE_SIDE, scale);
+        byte[][] rows = Mazes.generate(side, random, 0.05);
+        rows[side - 2][1] = 'S';
+        rows[1][side - 2] = 'E';
+        InputGenerator.writeGrid(rows, out);
+    }
+}
@@ -0,0 +1,32 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Part 2 searches for a register A value that makes the program print itself, which only works for
+ * programs of the puzzle shape. So the program stays the same and only register A gets an extra octal digit
+ * or two, making part 1 produce a longer output. The input doesn't really scale beyond that.
+ */
+public class Day17Generator implements InputGenerator {
+    private static final String PROGRAM = "2,4,1,5,7,5,1,6,0,3,4,2,5,5,3,0";
+    private static final int BASE_OCTAL_DIGITS = 9;
+    private static final int MAX_OCTAL_DIGITS = 10;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        // every octal digit of A gives one output value, part 1 keeps registers in ints
+        int digits = Math.min(MAX_OCTAL_DIGITS, BASE_OCTAL_DIGITS + 31 - Integer.numberOfLeadingZeros(scale));
+        long registerA = 1 + random.nextInt(digits == MAX_OCTAL_DIGITS ? 1 : 7);
+        for (int i = 1; i < digits; ++i) {
+            registerA = registerA << 3 | random.nextInt(8);
+        }
+
+        out.write("Register A: " + registerA + "\n");
+        out.write("Register B: 0\n");
+        out.write("Register C: 0\n");
+        out.write("\n");
+        out.write("Program: " + PROGRAM + "\n");
+    }
+}
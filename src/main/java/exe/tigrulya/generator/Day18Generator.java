@@ -0,0 +1,40 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day18Generator implements InputGenerator {
+    private static final int BASE_SIDE = 71;
+    private static final double FALLING_SHARE = 0.68;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        int cellsCount = side * side;
+
+        // shuffle all cells except the start and the exit corners
+        int[] cells = new int[cellsCount - 2];
+        for (int i = 0; i < cells.length; ++i) {
+            cells[i] = i + 1;
+        }
+        for (int i = cells.length - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+
+        // the solver detects the memory size by the largest coordinate, so the far column always gets a byte
+        int lastColumnCell = side * InputGenerator.between(random, 1, side - 2) + side - 1;
+        out.write((side - 1) + "," + (lastColumnCell / side) + "\n");
+
+        int fallingBytes = (int) (cells.length * FALLING_SHARE);
+        for (int i = 0; i < fallingBytes; ++i) {
+            if (cells[i] == lastColumnCell) {
+                continue;
+            }
+            out.write((cells[i] % side) + "," + (cells[i] / side) + "\n");
+        }
+    }
+}
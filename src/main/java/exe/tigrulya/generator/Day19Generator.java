@@ -0,0 +1,52 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class Day19Generator implements InputGenerator {
+    private static final int TOWELS = 447;
+    private static final int BASE_DESIGNS = 400;
+    private static final char[] COLORS = {'w', 'u', 'b', 'r', 'g'};
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        Set<String> towels = new LinkedHashSet<>();
+        // no single-stripe 'r' towel, so designs with a lone 'r' in a bad spot may be impossible
+        towels.add("w");
+        towels.add("u");
+        towels.add("b");
+        towels.add("g");
+        while (towels.size() < TOWELS) {
+            towels.add(randomStripes(random, InputGenerator.between(random, 2, 8)));
+        }
+        String[] towelsArray = towels.toArray(String[]::new);
+        out.write(String.join(", ", towels));
+        out.write("\n\n");
+
+        StringBuilder design = new StringBuilder();
+        long designs = (long) BASE_DESIGNS * scale;
+        for (long i = 0; i < designs; ++i) {
+            design.setLength(0);
+            int length = InputGenerator.between(random, 20, 60);
+            if (random.nextInt(3) == 0) {
+                design.append(randomStripes(random, length));
+            } else {
+                while (design.length() < length) {
+                    design.append(towelsArray[random.nextInt(towelsArray.length)]);
+                }
+            }
+            out.append(design).append('\n');
+        }
+    }
+
+    private static String randomStripes(Random random, int length) {
+        char[] stripes = new char[length];
+        for (int i = 0; i < length; ++i) {
+            stripes[i] = COLORS[random.nextInt(COLORS.length)];
+        }
+        return new String(stripes);
+    }
+}
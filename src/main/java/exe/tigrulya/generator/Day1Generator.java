@@ -0,0 +1,23 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day1Generator implements InputGenerator {
+    private static final int BASE_PAIRS = 1000;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        long pairs = (long) BASE_PAIRS * scale;
+        for (long i = 0; i < pairs; ++i) {
+            int left = InputGenerator.between(random, 10000, 99999);
+            // every fifth right value repeats a left one, so similarity scores aren't all zero
+            int right = random.nextInt(5) == 0 ? left : InputGenerator.between(random, 10000, 99999);
+            out.write(Integer.toString(left));
+            out.write("   ");
+            out.write(Integer.toString(right));
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Single winding track: straight lanes on odd rows joined at alternating ends.
+ * Cheating through the wall between two lanes saves more time the farther it is from their joint.
+ */
+public class Day20Generator implements InputGenerator {
+    private static final int BASE_SIDE = 141;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.oddSide(BASE_SIDE, scale);
+        byte[][] rows = new byte[side][side];
+        for (byte[] row : rows) {
+            Arrays.fill(row, (byte) '#');
+        }
+
+        int lastLane = side - 2;
+        for (int y = 1; y <= lastLane; y += 2) {
+            Arrays.fill(rows[y], 1, side - 1, (byte) '.');
+            if (y < lastLane) {
+                boolean joinRight = (y / 2) % 2 == 0;
+                rows[y + 1][joinRight ? side - 2 : 1] = '.';
+            }
+        }
+
+        rows[1][1] = 'S';
+        boolean lastLaneEndsRight = (lastLane / 2) % 2 == 0;
+        rows[lastLane][lastLaneEndsRight ? side - 2 : 1] = 'E';
+        InputGenerator.writeGrid(rows, out);
+    }
+}
@@ -0,0 +1,38 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day2Generator implements InputGenerator {
+    private static final int BASE_REPORTS = 1000;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int[] levels = new int[8];
+        long reports = (long) BASE_REPORTS * scale;
+        for (long i = 0; i < reports; ++i) {
+            int length = InputGenerator.between(random, 5, 8);
+            int direction = random.nextBoolean() ? 1 : -1;
+            levels[0] = direction > 0 ? InputGenerator.between(random, 1, 60) : InputGenerator.between(random, 30, 90);
+            for (int j = 1; j < length; ++j) {
+                levels[j] = levels[j - 1] + direction * InputGenerator.between(random, 1, 3);
+            }
+
+            // about half of the reports get a single bad level, some of them twice
+            int badLevels = random.nextInt(4) == 0 ? 2 : random.nextInt(2);
+            for (int j = 0; j < badLevels; ++j) {
+                int position = random.nextInt(length);
+                levels[position] += InputGenerator.between(random, -6, 6);
+            }
+
+            for (int j = 0; j < length; ++j) {
+                if (j > 0) {
+                    out.write(' ');
+                }
+                out.write(Integer.toString(Math.max(1, levels[j])));
+            }
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day3Generator implements InputGenerator {
+    private static final int BASE_LINES = 6;
+    private static final int LINE_LENGTH = 3000;
+
+    private static final String[] NOISE = {
+        "who()", "what()", "where(", "when()", "from()", "select()", "how()", "why()",
+        "[", "]", "{", "}", "<", ">", "'", "#", "!", "@", "$", "%", "^", "&", "*", "~", "+", "?", ":", ";", " ",
+        "mul", "mul(", "mul[", "mul (", "do", "don't", "don't(", "(", ")", ","
+    };
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(LINE_LENGTH + 32);
+        long lines = (long) BASE_LINES * scale;
+        for (long i = 0; i < lines; ++i) {
+            line.setLength(0);
+            while (line.length() < LINE_LENGTH) {
+                int kind = random.nextInt(20);
+                if (kind < 5) {
+                    line.append("mul(")
+                        .append(InputGenerator.between(random, 1, 999))
+                        .append(',')
+                        .append(InputGenerator.between(random, 1, 999))
+                        .append(')');
+                } else if (kind == 5) {
+                    line.append("do()");
+                } else if (kind == 6) {
+                    line.append("don't()");
+                } else if (kind == 7) {
+                    // almost an instruction
+                    line.append("mul(")
+                        .append(InputGenerator.between(random, 1, 9999))
+                        .append(random.nextBoolean() ? ", " : ",")
+                        .append(InputGenerator.between(random, 1, 999))
+                        .append(random.nextBoolean() ? "]" : "!");
+                } else {
+                    line.append(NOISE[random.nextInt(NOISE.length)]);
+                }
+            }
+            out.append(line).append('\n');
+        }
+    }
+}
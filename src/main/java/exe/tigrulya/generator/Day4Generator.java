@@ -0,0 +1,22 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day4Generator implements InputGenerator {
+    private static final int BASE_SIDE = 140;
+    private static final byte[] LETTERS = {'X', 'M', 'A', 'S'};
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        byte[][] rows = new byte[side][side];
+        for (byte[] row : rows) {
+            for (int x = 0; x < side; ++x) {
+                row[x] = LETTERS[random.nextInt(LETTERS.length)];
+            }
+        }
+        InputGenerator.writeGrid(rows, out);
+    }
+}
@@ -0,0 +1,58 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class Day5Generator implements InputGenerator {
+    private static final int PAGES = 49;
+    private static final int BASE_UPDATES = 200;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        // pages are totally ordered, so every update has exactly one correct order
+        List<Integer> allPages = IntStream.rangeClosed(10, 99)
+            .boxed()
+            .collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(allPages, random);
+        List<Integer> order = allPages.subList(0, PAGES);
+        int[] ranks = new int[100];
+        for (int i = 0; i < PAGES; ++i) {
+            ranks[order.get(i)] = i;
+        }
+
+        List<String> rules = new ArrayList<>();
+        for (int i = 0; i < PAGES; ++i) {
+            for (int j = i + 1; j < PAGES; ++j) {
+                rules.add(order.get(i) + "|" + order.get(j));
+            }
+        }
+        Collections.shuffle(rules, random);
+        for (var rule : rules) {
+            out.write(rule);
+            out.write('\n');
+        }
+        out.write('\n');
+
+        long updates = (long) BASE_UPDATES * scale;
+        List<Integer> pages = new ArrayList<>(order);
+        for (long i = 0; i < updates; ++i) {
+            int length = 2 * InputGenerator.between(random, 2, 11) + 1;
+            Collections.shuffle(pages, random);
+            List<Integer> update = new ArrayList<>(pages.subList(0, length));
+            if (random.nextBoolean()) {
+                update.sort((a, b) -> Integer.compare(ranks[a], ranks[b]));
+            }
+
+            out.write(update.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+            out.write('\n');
+        }
+    }
+}
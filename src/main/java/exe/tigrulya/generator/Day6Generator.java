@@ -0,0 +1,69 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day6Generator implements InputGenerator {
+    private static final int BASE_SIDE = 130;
+    private static final double OBSTACLE_DENSITY = 0.05;
+
+    // up, right, down, left
+    private static final int[] X_SHIFTS = {0, 1, 0, -1};
+    private static final int[] Y_SHIFTS = {-1, 0, 1, 0};
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        byte[][] rows = new byte[side][side];
+        for (byte[] row : rows) {
+            for (int x = 0; x < side; ++x) {
+                row[x] = random.nextDouble() < OBSTACLE_DENSITY ? (byte) '#' : (byte) '.';
+            }
+        }
+
+        int guardX = InputGenerator.between(random, side / 4, 3 * side / 4);
+        int guardY = InputGenerator.between(random, side / 4, 3 * side / 4);
+        rows[guardY][guardX] = '^';
+
+        // part 1 expects the guard to leave the map, so break every loop she gets stuck in
+        int loopObstacle;
+        while ((loopObstacle = findLoopObstacle(rows, guardX, guardY)) >= 0) {
+            rows[loopObstacle / side][loopObstacle % side] = '.';
+        }
+
+        InputGenerator.writeGrid(rows, out);
+    }
+
+    /**
+     * Returns the last obstacle the guard turned at before getting into a loop, -1 if she leaves the map.
+     */
+    private static int findLoopObstacle(byte[][] rows, int x, int y) {
+        int side = rows.length;
+        byte[] visitedDirections = new byte[side * side];
+        int direction = 0;
+        int lastObstacle = -1;
+
+        while (true) {
+            int cell = y * side + x;
+            if ((visitedDirections[cell] & (1 << direction)) != 0) {
+                return lastObstacle;
+            }
+            visitedDirections[cell] |= (byte) (1 << direction);
+
+            int nextX = x + X_SHIFTS[direction];
+            int nextY = y + Y_SHIFTS[direction];
+            if (nextX < 0 || nextY < 0 || nextX >= side || nextY >= side) {
+                return -1;
+            }
+
+            if (rows[nextY][nextX] == '#') {
+                lastObstacle = nextY * side + nextX;
+                direction = (direction + 1) & 3;
+            } else {
+                x = nextX;
+                y = nextY;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day7Generator implements InputGenerator {
+    private static final int BASE_EQUATIONS = 850;
+    private static final long MAX_TARGET = 1_000_000_000_000_000L;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        long[] numbers = new long[12];
+        long equations = (long) BASE_EQUATIONS * scale;
+        for (long i = 0; i < equations; ++i) {
+            int count;
+            long target;
+            do {
+                count = InputGenerator.between(random, 3, numbers.length);
+                for (int j = 0; j < count; ++j) {
+                    numbers[j] = random.nextInt(4) == 0
+                        ? InputGenerator.between(random, 10, 999)
+                        : InputGenerator.between(random, 1, 9);
+                }
+                target = evaluate(numbers, count, random);
+            } while (target < 0);
+
+            // a third of equations can't be solved with any operators
+            if (random.nextInt(3) == 0) {
+                target += InputGenerator.between(random, 1, 1000);
+            }
+
+            out.write(Long.toString(target));
+            out.write(':');
+            for (int j = 0; j < count; ++j) {
+                out.write(' ');
+                out.write(Long.toString(numbers[j]));
+            }
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Combines numbers with random operators, -1 if the result gets too large.
+     */
+    private static long evaluate(long[] numbers, int count, Random random) {
+        long result = numbers[0];
+        for (int j = 1; j < count; ++j) {
+            long number = numbers[j];
+            result = switch (random.nextInt(3)) {
+                case 0 -> result + number;
+                case 1 -> result * number;
+                default -> result * (number < 10 ? 10 : number < 100 ? 100 : 1000) + number;
+            };
+            if (result > MAX_TARGET) {
+                return -1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day8Generator implements InputGenerator {
+    private static final int BASE_SIDE = 50;
+    private static final double ANTENNA_DENSITY = 0.08;
+    private static final byte[] FREQUENCIES =
+        "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".getBytes();
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        int side = InputGenerator.scaledSide(BASE_SIDE, scale);
+        byte[][] rows = new byte[side][side];
+        for (byte[] row : rows) {
+            for (int x = 0; x < side; ++x) {
+                row[x] = random.nextDouble() < ANTENNA_DENSITY
+                    ? FREQUENCIES[random.nextInt(FREQUENCIES.length)]
+                    : (byte) '.';
+            }
+        }
+        InputGenerator.writeGrid(rows, out);
+    }
+}
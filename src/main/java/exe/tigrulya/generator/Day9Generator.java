@@ -0,0 +1,20 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+public class Day9Generator implements InputGenerator {
+    private static final int BASE_LENGTH = 20_000;
+
+    @Override
+    public void generate(int scale, Random random, Writer out) throws IOException {
+        // disk map starts and ends with a file
+        long length = ((long) BASE_LENGTH * scale) | 1;
+        for (long i = 0; i < length; ++i) {
+            boolean isFile = (i & 1) == 0;
+            out.write('0' + (isFile ? InputGenerator.between(random, 1, 9) : random.nextInt(10)));
+        }
+        out.write('\n');
+    }
+}
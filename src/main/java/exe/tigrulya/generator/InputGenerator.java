@@ -0,0 +1,37 @@
+package exe.tigrulya.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Produces a valid puzzle input for a single day.
+ * Scale 1 roughly matches the size of the shipped input: list inputs get {@code scale} times more records,
+ * grid inputs get {@code scale} times more cells.
+ */
+public interface InputGenerator {
+    void generate(int scale, Random random, Writer out) throws IOException;
+
+    static int scaledSide(int baseSide, int scale) {
+        return (int) Math.round(baseSide * Math.sqrt(scale));
+    }
+
+    static int oddSide(int baseSide, int scale) {
+        return scaledSide(baseSide, scale) | 1;
+    }
+
+    static int between(Random random, int from, int to) {
+        return from + random.nextInt(to - from + 1);
+    }
+
+    static void writeGrid(byte[][] rows, Writer out) throws IOException {
+        char[] line = new char[rows[0].length];
+        for (byte[] row : rows) {
+            for (int x = 0; x < row.length; ++x) {
+                line[x] = (char) row[x];
+            }
+            out.write(line);
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package exe.tigrulya.generator;
+
+import exe.tigrulya.SolverId;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+import static exe.tigrulya.Utils.getResource;
+
+public class InputGenerators {
+    public static final Path SCALED_INPUTS_DIR = Path.of("target", "inputs");
+
+    // same seed for every run, so scaled inputs and their answers are reproducible
+    private static final long SEED = 2024;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3 || args.length == 3 && !"-".equals(args[2])) {
+            System.err.println("Usage: InputGenerators <day|all> <scale> [- to write a single day to stdout]");
+            System.exit(1);
+        }
+
+        int scale = Integer.parseInt(args[1]);
+        if (args.length == 3) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+            generate(Integer.parseInt(args[0]), scale, out);
+            out.flush();
+        } else if ("all".equals(args[0])) {
+            for (int day = 1; day <= SolverId.MAX_DAY; ++day) {
+                if (forDay(day) != null) {
+                    System.out.println("Generated " + generate(day, scale));
+                }
+            }
+        } else {
+            System.out.println("Generated " + generate(Integer.parseInt(args[0]), scale));
+        }
+    }
+
+    public static InputGenerator forDay(int day) {
+        return switch (day) {
+            case 1 -> new Day1Generator();
+            case 2 -> new Day2Generator();
+            case 3 -> new Day3Generator();
+            case 4 -> new Day4Generator();
+            case 5 -> new Day5Generator();
+            case 6 -> new Day6Generator();
+            case 7 -> new Day7Generator();
+            case 8 -> new Day8Generator();
+            case 9 -> new Day9Generator();
+            case 10 -> new Day10Generator();
+            case 11 -> new Day11Generator();
+            case 12 -> new Day12Generator();
+            case 13 -> new Day13Generator();
+            case 14 -> new Day14Generator();
+            case 15 -> new Day15Generator();
+            case 16 -> new Day16Generator();
+            case 17 -> new Day17Generator();
+            case 18 -> new Day18Generator();
+            case 19 -> new Day19Generator();
+            case 20 -> new Day20Generator();
+            default -> null;
+        };
+    }
+
+    public static Path scaledInput(int day, int scale) {
+        return SCALED_INPUTS_DIR.resolve(day + "-x" + scale + ".txt");
+    }
+
+    /**
+     * Scale 1 is the shipped puzzle input, larger scales are generated into target/inputs on first use.
+     */
+    public static Path resolve(SolverId solverId, int scale) throws IOException {
+        return scale == 1
+            ? getResource(solverId.inputResource())
+            : ensureGenerated(solverId.day(), scale);
+    }
+
+    /**
+     * Returns the scaled input for the day, generating it first if it doesn't exist yet.
+     */
+    public static synchronized Path ensureGenerated(int day, int scale) throws IOException {
+        Path path = scaledInput(day, scale);
+        return Files.exists(path) ? path : generate(day, scale);
+    }
+
+    public static Path generate(int day, int scale) throws IOException {
+        InputGenerator generator = checkedGenerator(day, scale);
+        Path path = scaledInput(day, scale);
+        Files.createDirectories(path.getParent());
+
+        // write to a temporary file first, so an interrupted run never leaves a truncated input behind
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmpPath, StandardCharsets.US_ASCII)) {
+            generator.generate(scale, random(day), out);
+        }
+        return Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void generate(int day, int scale, Writer out) throws IOException {
+        generate(day, scale, random(day), out);
+    }
+
+    public static void generate(int day, int scale, Random random, Writer out) throws IOException {
+        checkedGenerator(day, scale).generate(scale, random, out);
+    }
+
+    private static InputGenerator checkedGenerator(int day, int scale) {
+        InputGenerator generator = forDay(day);
+        if (generator == null) {
+            throw new IllegalArgumentException("No input generator for day " + day);
+        }
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale should be positive: " + scale);
+        }
+        return generator;
+    }
+
+    private static Random random(int day) {
+        return new Random(SEED * 31 + day);
+    }
+}
@@ -0,0 +1,70 @@
+package exe.tigrulya.generator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class Mazes {
+    private static final int[] X_SHIFTS = {0, 2, 0, -2};
+    private static final int[] Y_SHIFTS = {-2, 0, 2, 0};
+
+    /**
+     * Carves a maze on odd cells of a {@code side x side} wall block with an iterative backtracker.
+     * Each remaining inner wall is then knocked out with {@code extraPassages} probability,
+     * so there are several routes between any two cells.
+     */
+    static byte[][] generate(int side, Random random, double extraPassages) {
+        byte[][] rows = new byte[side][side];
+        for (byte[] row : rows) {
+            Arrays.fill(row, (byte) '#');
+        }
+
+        int cellsPerRow = side / 2;
+        int[] stack = new int[cellsPerRow * cellsPerRow];
+        int[] directions = new int[4];
+        int stackSize = 0;
+        stack[stackSize++] = cell(1, 1, side);
+        rows[1][1] = '.';
+
+        while (stackSize > 0) {
+            int current = stack[stackSize - 1];
+            int x = current % side;
+            int y = current / side;
+
+            int candidates = 0;
+            for (int direction = 0; direction < 4; ++direction) {
+                int nextX = x + X_SHIFTS[direction];
+                int nextY = y + Y_SHIFTS[direction];
+                if (nextX > 0 && nextY > 0 && nextX < side - 1 && nextY < side - 1 && rows[nextY][nextX] == '#') {
+                    directions[candidates++] = direction;
+                }
+            }
+
+            if (candidates == 0) {
+                --stackSize;
+                continue;
+            }
+
+            int direction = directions[random.nextInt(candidates)];
+            int nextX = x + X_SHIFTS[direction];
+            int nextY = y + Y_SHIFTS[direction];
+            rows[y + Y_SHIFTS[direction] / 2][x + X_SHIFTS[direction] / 2] = '.';
+            rows[nextY][nextX] = '.';
+            stack[stackSize++] = cell(nextX, nextY, side);
+        }
+
+        for (int y = 1; y < side - 1; ++y) {
+            for (int x = 1; x < side - 1; ++x) {
+                // walls between two horizontally or vertically adjacent cells
+                boolean between = (x & 1) != (y & 1);
+                if (between && rows[y][x] == '#' && random.nextDouble() < extraPassages) {
+                    rows[y][x] = '.';
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static int cell(int x, int y, int side) {
+        return y * side + x;
+    }
+}
@@ -0,0 +1,32 @@
+package exe.tigrulya.graph;
+
+import exe.tigrulya.grid.Grid;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Implicit graph over int node ids: edges are produced on demand instead of being stored.
+ */
+@FunctionalInterface
+public interface Graph {
+    void forEachEdge(int node, EdgeConsumer edges);
+
+    @FunctionalInterface
+    interface EdgeConsumer {
+        void edge(int neighbour, long weight);
+    }
+
+    /**
+     * Cells of {@code grid} with unit edges between adjacent cells accepted by {@code passable}.
+     */
+    static Graph grid(Grid grid, IntPredicate passable) {
+        return (node, edges) -> {
+            for (int direction = Grid.UP; direction <= Grid.LEFT; ++direction) {
+                int neighbour = grid.neighbour(node, direction);
+                if (passable.test(neighbour)) {
+                    edges.edge(neighbour, 1);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,411 @@
+package exe.tigrulya.graph;
+
+import exe.tigrulya.collections.IndexedMinHeap;
+import exe.tigrulya.jfr.Events;
+import exe.tigrulya.jfr.SearchEvent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Shortest paths over an implicit {@link Graph} with node ids in {@code [0, capacity)}.
+ * Scratch arrays are allocated once and reset in time proportional to the nodes reached by the previous search,
+ * so a single instance runs any number of searches without allocating. Results stay valid until the next search.
+ * Searches given a target stop as soon as its distance is final, {@link #NO_NODE} explores everything reachable.
+ */
+public class GraphSearch {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+    public static final int NO_NODE = -1;
+
+    private static final ThreadLocal<Map<String, GraphSearch>> THREAD_SEARCHES = ThreadLocal.withInitial(HashMap::new);
+
+    private final String solver;
+    private final long[] distances;
+    private final int[] previous;
+    private final boolean[] settled;
+    // nodes with a known distance in the order they were reached, doubles as the BFS queue
+    private final int[] reached;
+    private int reachedCount;
+
+    private int[] deque = new int[16];
+    private int dequeHead;
+    private int dequeSize;
+
+    private int[] bucketHeads;
+    private int[] nextInBucket;
+    private int[] previousInBucket;
+    private int queuedCount;
+
+    private IndexedMinHeap heap;
+    private IntToLongFunction heuristic;
+
+    // node being expanded, read by the edge consumers below
+    private int currentNode;
+    private long currentDistance;
+
+    private final Graph.EdgeConsumer bfsRelaxation = this::relaxBfs;
+    private final Graph.EdgeConsumer zeroOneRelaxation = this::relaxZeroOne;
+    private final Graph.EdgeConsumer bucketRelaxation = this::relaxBucket;
+    private final Graph.EdgeConsumer aStarRelaxation = this::relaxAStar;
+
+    private long nodesExpanded;
+    private long edgesRelaxed;
+
+    /**
+     * @param solver name reported in {@link SearchEvent}s
+     */
+    public GraphSearch(int capacity, String solver) {
+        this.solver = solver;
+        this.distances = new long[capacity];
+        this.previous = new int[capacity];
+        this.settled = new boolean[capacity];
+        this.reached = new int[capacity];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(previous, NO_NODE);
+    }
+
+    /**
+     * Search of at least {@code capacity} owned by the current thread and {@code solver}, so runs of the same solver
+     * over many inputs on a pool thread share the scratch arrays. Results stay valid until the solver's next search
+     * on this thread, so a solver needing two searches alive at once has to create them itself.
+     */
+    public static GraphSearch forCurrentThread(int capacity, String solver) {
+        Map<String, GraphSearch> searches = THREAD_SEARCHES.get();
+        GraphSearch search = searches.get(solver);
+        if (search == null || search.capacity() < capacity) {
+            search = new GraphSearch(capacity, solver);
+            searches.put(solver, search);
+        }
+        return search;
+    }
+
+    public int capacity() {
+        return distances.length;
+    }
+
+    /**
+     * Breadth-first search, every edge counts as 1 whatever its weight.
+     */
+    public GraphSearch bfs(Graph graph, int start, int target) {
+        reset();
+        reach(start, 0, NO_NODE);
+        return runBfs(graph, target);
+    }
+
+    /**
+     * Breadth-first search from all of {@code starts} at once, each of them at distance 0.
+     */
+    public GraphSearch bfs(Graph graph, int[] starts, int target) {
+        reset();
+        for (int start : starts) {
+            if (distances[start] == UNREACHABLE) {
+                reach(start, 0, NO_NODE);
+            }
+        }
+        return runBfs(graph, target);
+    }
+
+    /**
+     * Shortest paths for edge weights of 0 and 1 using a deque instead of a priority queue.
+     */
+    public GraphSearch zeroOneBfs(Graph graph, int start, int target) {
+        reset();
+        reach(start, 0, NO_NODE);
+        dequeHead = 0;
+        dequeSize = 0;
+        pushFront(start);
+
+        SearchEvent event = Events.beginSearch();
+        while (dequeSize > 0) {
+            int node = deque[dequeHead];
+            dequeHead = (dequeHead + 1) & (deque.length - 1);
+            --dequeSize;
+            if (settled[node]) {
+                continue;
+            }
+
+            settled[node] = true;
+            if (node == target) {
+                break;
+            }
+            expand(graph, node, zeroOneRelaxation);
+        }
+        commit(event);
+        return this;
+    }
+
+    /**
+     * Dijkstra over a circular bucket queue, for integer edge weights in {@code [0, maxWeight]}.
+     * Each step costs O(1) amortized plus the scan over empty buckets, instead of O(log n) of a heap.
+     */
+    public GraphSearch dijkstra(Graph graph, int start, int target, int maxWeight) {
+        reset();
+        if (bucketHeads == null || bucketHeads.length != maxWeight + 1) {
+            bucketHeads = new int[maxWeight + 1];
+        }
+        if (nextInBucket == null) {
+            nextInBucket = new int[capacity()];
+            previousInBucket = new int[capacity()];
+        }
+        Arrays.fill(bucketHeads, NO_NODE);
+        queuedCount = 0;
+
+        reach(start, 0, NO_NODE);
+        link(start);
+
+        SearchEvent event = Events.beginSearch();
+        long distance = 0;
+        while (queuedCount > 0) {
+            int bucket = (int) (distance % bucketHeads.length);
+            int node = bucketHeads[bucket];
+            if (node == NO_NODE) {
+                ++distance;
+                continue;
+            }
+
+            unlink(node);
+            settled[node] = true;
+            if (node == target) {
+                break;
+            }
+            expand(graph, node, bucketRelaxation);
+        }
+        commit(event);
+        return this;
+    }
+
+    /**
+     * A* towards {@code target}. The heuristic must never overestimate the remaining distance
+     * and should be consistent, otherwise nodes are expanded more than once.
+     */
+    public GraphSearch aStar(Graph graph, int start, int target, IntToLongFunction heuristic) {
+        reset();
+        if (heap == null) {
+            heap = new IndexedMinHeap(capacity());
+        }
+        heap.clear();
+        this.heuristic = heuristic;
+
+        reach(start, 0, NO_NODE);
+        heap.offer(start, heuristic.applyAsLong(start));
+
+        SearchEvent event = Events.beginSearch();
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            settled[node] = true;
+            if (node == target) {
+                break;
+            }
+            expand(graph, node, aStarRelaxation);
+        }
+        commit(event);
+        return this;
+    }
+
+    public long distance(int node) {
+        return distances[node];
+    }
+
+    public boolean isReached(int node) {
+        return distances[node] != UNREACHABLE;
+    }
+
+    public int previous(int node) {
+        return previous[node];
+    }
+
+    /**
+     * Distances of all nodes, {@link #UNREACHABLE} for the ones not reached. Must not be modified.
+     */
+    public long[] distances() {
+        return distances;
+    }
+
+    public int reachedCount() {
+        return reachedCount;
+    }
+
+    /**
+     * Reached nodes in the order they were reached, which is nondecreasing distance order for BFS.
+     */
+    public int reached(int index) {
+        return reached[index];
+    }
+
+    /**
+     * Nodes from the start to {@code target}, empty if it wasn't reached.
+     */
+    public int[] path(int target) {
+        if (!isReached(target)) {
+            return new int[0];
+        }
+
+        int length = 0;
+        for (int node = target; node != NO_NODE; node = previous[node]) {
+            ++length;
+        }
+
+        int[] path = new int[length];
+        for (int i = length - 1, node = target; i >= 0; --i, node = previous[node]) {
+            path[i] = node;
+        }
+        return path;
+    }
+
+    public long nodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long edgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    private GraphSearch runBfs(Graph graph, int target) {
+        SearchEvent event = Events.beginSearch();
+        for (int head = 0; head < reachedCount; ++head) {
+            int node = reached[head];
+            if (node == target) {
+                break;
+            }
+            expand(graph, node, bfsRelaxation);
+        }
+        commit(event);
+        return this;
+    }
+
+    private void expand(Graph graph, int node, Graph.EdgeConsumer relaxation) {
+        ++nodesExpanded;
+        currentNode = node;
+        currentDistance = distances[node];
+        graph.forEachEdge(node, relaxation);
+    }
+
+    private void relaxBfs(int neighbour, long weight) {
+        if (distances[neighbour] == UNREACHABLE) {
+            reach(neighbour, currentDistance + 1, currentNode);
+            ++edgesRelaxed;
+        }
+    }
+
+    private void relaxZeroOne(int neighbour, long weight) {
+        if (weight != 0 && weight != 1) {
+            throw new IllegalArgumentException("0-1 BFS can't handle edge weight " + weight);
+        }
+
+        long distance = currentDistance + weight;
+        if (distance < distances[neighbour]) {
+            reach(neighbour, distance, currentNode);
+            ++edgesRelaxed;
+            if (weight == 0) {
+                pushFront(neighbour);
+            } else {
+                pushBack(neighbour);
+            }
+        }
+    }
+
+    private void relaxBucket(int neighbour, long weight) {
+        if (weight < 0 || weight >= bucketHeads.length) {
+            throw new IllegalArgumentException("Edge weight " + weight + " is out of [0, " + (bucketHeads.length - 1) + "]");
+        }
+
+        long distance = currentDistance + weight;
+        if (distance < distances[neighbour]) {
+            // every reached node stays queued until it's settled
+            if (distances[neighbour] != UNREACHABLE) {
+                unlink(neighbour);
+            }
+            reach(neighbour, distance, currentNode);
+            link(neighbour);
+            ++edgesRelaxed;
+        }
+    }
+
+    private void relaxAStar(int neighbour, long weight) {
+        long distance = currentDistance + weight;
+        if (distance < distances[neighbour]) {
+            reach(neighbour, distance, currentNode);
+            settled[neighbour] = false;
+            heap.offer(neighbour, distance + heuristic.applyAsLong(neighbour));
+            ++edgesRelaxed;
+        }
+    }
+
+    private void reach(int node, long distance, int from) {
+        if (distances[node] == UNREACHABLE) {
+            reached[reachedCount++] = node;
+        }
+        distances[node] = distance;
+        previous[node] = from;
+    }
+
+    private void reset() {
+        for (int i = 0; i < reachedCount; ++i) {
+            int node = reached[i];
+            distances[node] = UNREACHABLE;
+            previous[node] = NO_NODE;
+            settled[node] = false;
+        }
+        reachedCount = 0;
+        nodesExpanded = 0;
+        edgesRelaxed = 0;
+    }
+
+    private void link(int node) {
+        int bucket = (int) (distances[node] % bucketHeads.length);
+        int head = bucketHeads[bucket];
+        nextInBucket[node] = head;
+        previousInBucket[node] = NO_NODE;
+        if (head != NO_NODE) {
+            previousInBucket[head] = node;
+        }
+        bucketHeads[bucket] = node;
+        ++queuedCount;
+    }
+
+    private void unlink(int node) {
+        int next = nextInBucket[node];
+        int prev = previousInBucket[node];
+        if (prev == NO_NODE) {
+            bucketHeads[(int) (distances[node] % bucketHeads.length)] = next;
+        } else {
+            nextInBucket[prev] = next;
+        }
+        if (next != NO_NODE) {
+            previousInBucket[next] = prev;
+        }
+        --queuedCount;
+    }
+
+    private void pushFront(int node) {
+        ensureDequeCapacity();
+        dequeHead = (dequeHead - 1) & (deque.length - 1);
+        deque[dequeHead] = node;
+        ++dequeSize;
+    }
+
+    private void pushBack(int node) {
+        ensureDequeCapacity();
+        deque[(dequeHead + dequeSize) & (deque.length - 1)] = node;
+        ++dequeSize;
+    }
+
+    private void ensureDequeCapacity() {
+        if (dequeSize < deque.length) {
+            return;
+        }
+
+        int[] grown = new int[deque.length * 2];
+        for (int i = 0; i < dequeSize; ++i) {
+            grown[i] = deque[(dequeHead + i) & (deque.length - 1)];
+        }
+        deque = grown;
+        dequeHead = 0;
+    }
+
+    private void commit(SearchEvent event) {
+        Events.commitSearch(event, solver, nodesExpanded, edgesRelaxed);
+    }
+}
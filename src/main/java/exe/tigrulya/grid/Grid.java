@@ -0,0 +1,325 @@
+package exe.tigrulya.grid;
+
+import exe.tigrulya.InputCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Row-major byte grid surrounded by a one cell wide {@link #BORDER} frame.
+ * Cells are addressed by packed int ids, so stepping to a neighbour is a single addition
+ * and never needs a bounds check: walking off the field lands on a border cell.
+ * <p>
+ * Cells live on the heap by default. {@link Storage#DIRECT} keeps them off-heap, and {@link Storage#MAPPED}
+ * in a deleted temporary file paged in by the OS, so grids can be larger than the heap or even RAM,
+ * up to 2 GB of cells. Direct storage is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the heap size.
+ * The default is chosen once at startup:
+ * <pre>
+ * java -Daoc.grid.storage=heap|direct|mapped ...
+ * </pre>
+ */
+public abstract class Grid {
+    public enum Storage {
+        HEAP,
+        DIRECT,
+        MAPPED
+    }
+
+    public static final Storage DEFAULT_STORAGE =
+            Storage.valueOf(System.getProperty("aoc.grid.storage", "heap").toUpperCase(Locale.ROOT));
+
+    public static final byte BORDER = 0;
+
+    // clockwise, so rotating right is (direction + 1) & 3
+    public static final int UP = 0;
+    public static final int RIGHT = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+
+    private final int rows;
+    private final int columns;
+    private final int stride;
+    private final int[] neighbourOffsets;
+
+    private Grid(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.stride = columns + 2;
+        this.neighbourOffsets = new int[] {-stride, 1, stride, -1};
+    }
+
+    public static Grid of(int rows, int columns, byte fill) {
+        return of(rows, columns, fill, DEFAULT_STORAGE);
+    }
+
+    public static Grid of(int rows, int columns, byte fill, Storage storage) {
+        Grid grid = allocate(storage, rows, columns);
+        for (int y = 0; y < rows; ++y) {
+            grid.fill(grid.id(0, y), columns, fill);
+        }
+        return grid;
+    }
+
+    public static Grid of(InputCursor.GridView view) {
+        return of(view, DEFAULT_STORAGE);
+    }
+
+    /**
+     * Copies the rows straight from the input buffer, so nothing passes through the heap
+     * for mapped inputs and off-heap storage.
+     */
+    public static Grid of(InputCursor.GridView view, Storage storage) {
+        Grid grid = allocate(storage, view.rows(), view.columns());
+        for (int y = 0; y < view.rows(); ++y) {
+            grid.copyFrom(view.buffer(), view.start() + y * view.stride(), grid.id(0, y), view.columns());
+        }
+        return grid;
+    }
+
+    public static Grid parse(Path input) throws IOException {
+        return parse(input, DEFAULT_STORAGE);
+    }
+
+    public static Grid parse(Path input, Storage storage) throws IOException {
+        try (var cursor = InputCursor.open(input)) {
+            return of(cursor.nextGrid(), storage);
+        }
+    }
+
+    public abstract Storage storage();
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Size of the id space, including border cells. Use it to size per-cell arrays.
+     */
+    public abstract int size();
+
+    /**
+     * {@link #size()} of a grid with the given dimensions, without allocating one.
+     */
+    public static int size(int rows, int columns) {
+        return Math.multiplyExact(rows + 2, columns + 2);
+    }
+
+    public int id(int x, int y) {
+        return (y + 1) * stride + x + 1;
+    }
+
+    public int x(int id) {
+        return id % stride - 1;
+    }
+
+    public int y(int id) {
+        return id / stride - 1;
+    }
+
+    public abstract byte get(int id);
+
+    public byte get(int x, int y) {
+        return get(id(x, y));
+    }
+
+    public abstract void set(int id, byte value);
+
+    public void set(int x, int y, byte value) {
+        set(id(x, y), value);
+    }
+
+    public boolean isBorder(int id) {
+        return get(id) == BORDER;
+    }
+
+    public int neighbour(int id, int direction) {
+        return id + neighbourOffsets[direction];
+    }
+
+    public int offset(int direction) {
+        return neighbourOffsets[direction];
+    }
+
+    public int offset(int xShift, int yShift) {
+        return yShift * stride + xShift;
+    }
+
+    public int distance(int id, int otherId) {
+        return Math.abs(x(id) - x(otherId)) + Math.abs(y(id) - y(otherId));
+    }
+
+    public int indexOf(byte value) {
+        for (int id = 0; id < size(); ++id) {
+            if (get(id) == value) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    public long count(byte value) {
+        long count = 0;
+        for (int id = 0; id < size(); ++id) {
+            if (get(id) == value) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copy with the same storage.
+     */
+    public abstract Grid copy();
+
+    abstract void fill(int id, int length, byte value);
+
+    abstract void copyFrom(ByteBuffer source, int sourceIndex, int id, int length);
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder((columns + 1) * rows);
+        for (int y = 0; y < rows; ++y) {
+            for (int x = 0; x < columns; ++x) {
+                builder.append((char) get(x, y));
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static Grid allocate(Storage storage, int rows, int columns) {
+        int size = size(rows, columns);
+        return switch (storage) {
+            case HEAP -> new HeapGrid(new byte[size], rows, columns);
+            case DIRECT -> new BufferGrid(ByteBuffer.allocateDirect(size), Storage.DIRECT, rows, columns);
+            case MAPPED -> new BufferGrid(map(size), Storage.MAPPED, rows, columns);
+        };
+    }
+
+    private static ByteBuffer map(int size) {
+        try {
+            Path file = Files.createTempFile("grid-", ".cells");
+            ByteBuffer cells;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // mapping past the end grows the file sparsely, so only touched pages take disk space
+                cells = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            // the mapping outlives the file on POSIX systems, elsewhere it's removed once the JVM exits
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+            return cells;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map grid of " + size + " cells", e);
+        }
+    }
+
+    // plain array access for the default storage, a buffer costs bounds and address checks on every cell
+    private static final class HeapGrid extends Grid {
+        private final byte[] cells;
+
+        HeapGrid(byte[] cells, int rows, int columns) {
+            super(rows, columns);
+            this.cells = cells;
+        }
+
+        @Override
+        public Storage storage() {
+            return Storage.HEAP;
+        }
+
+        @Override
+        public int size() {
+            return cells.length;
+        }
+
+        @Override
+        public byte get(int id) {
+            return cells[id];
+        }
+
+        @Override
+        public void set(int id, byte value) {
+            cells[id] = value;
+        }
+
+        @Override
+        public Grid copy() {
+            return new HeapGrid(cells.clone(), rows(), columns());
+        }
+
+        @Override
+        void fill(int id, int length, byte value) {
+            Arrays.fill(cells, id, id + length, value);
+        }
+
+        @Override
+        void copyFrom(ByteBuffer source, int sourceIndex, int id, int length) {
+            source.get(sourceIndex, cells, id, length);
+        }
+    }
+
+    private static final class BufferGrid extends Grid {
+        private final ByteBuffer cells;
+        private final Storage storage;
+
+        BufferGrid(ByteBuffer cells, Storage storage, int rows, int columns) {
+            super(rows, columns);
+            this.cells = cells;
+            this.storage = storage;
+        }
+
+        @Override
+        public Storage storage() {
+            return storage;
+        }
+
+        @Override
+        public int size() {
+            return cells.capacity();
+        }
+
+        @Override
+        public byte get(int id) {
+            return cells.get(id);
+        }
+
+        @Override
+        public void set(int id, byte value) {
+            cells.put(id, value);
+        }
+
+        @Override
+        public Grid copy() {
+            Grid copy = allocate(storage, rows(), columns());
+            copy.copyFrom(cells, 0, 0, size());
+            return copy;
+        }
+
+        @Override
+        void fill(int id, int length, byte value) {
+            for (int i = id; i < id + length; ++i) {
+                cells.put(i, value);
+            }
+        }
+
+        @Override
+        void copyFrom(ByteBuffer source, int sourceIndex, int id, int length) {
+            cells.put(id, source, sourceIndex, length);
+        }
+    }
+}
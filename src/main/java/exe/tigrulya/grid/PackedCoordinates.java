@@ -0,0 +1,48 @@
+package exe.tigrulya.grid;
+
+/**
+ * Signed (x, y) pairs packed into a single long: x in the high half, y in the low half.
+ * Lets coordinates be used as primitive keys without allocating a record per step.
+ */
+public final class PackedCoordinates {
+    private PackedCoordinates() {
+    }
+
+    public static long pack(int x, int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    public static int x(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int y(long packed) {
+        return (int) packed;
+    }
+
+    public static long add(long packed, long other) {
+        return pack(x(packed) + x(other), y(packed) + y(other));
+    }
+
+    public static long subtract(long packed, long other) {
+        return pack(x(packed) - x(other), y(packed) - y(other));
+    }
+
+    public static long multiply(long packed, int factor) {
+        return pack(x(packed) * factor, y(packed) * factor);
+    }
+
+    public static boolean isInside(long packed, int xSize, int ySize) {
+        int x = x(packed);
+        int y = y(packed);
+        return x >= 0 && x < xSize && y >= 0 && y < ySize;
+    }
+
+    public static int manhattanDistance(long packed, long other) {
+        return Math.abs(x(packed) - x(other)) + Math.abs(y(packed) - y(other));
+    }
+
+    public static String toString(long packed) {
+        return "(" + x(packed) + ", " + y(packed) + ")";
+    }
+}
@@ -0,0 +1,62 @@
+package exe.tigrulya.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Emits the events only while JFR is initialized, by {@code -XX:StartFlightRecording} or a later {@code jcmd JFR.start}.
+ * Loading the first event class initializes JFR, which takes about half a second, so event classes are only touched
+ * from here and never loaded by runs that don't record. Begin methods return null while JFR isn't running,
+ * commit methods accept it.
+ */
+public final class Events {
+    private Events() {
+    }
+
+    public static boolean enabled() {
+        return FlightRecorder.isInitialized();
+    }
+
+    public static IterationEvent beginIteration() {
+        if (!enabled()) {
+            return null;
+        }
+        IterationEvent event = new IterationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitIteration(IterationEvent event, String solver, int iteration, long size) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.iteration = iteration;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    public static SearchEvent beginSearch() {
+        if (!enabled()) {
+            return null;
+        }
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitSearch(SearchEvent event, String solver, long nodesExpanded, long edgesRelaxed) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.nodesExpanded = nodesExpanded;
+            event.edgesRelaxed = edgesRelaxed;
+            event.commit();
+        }
+    }
+}
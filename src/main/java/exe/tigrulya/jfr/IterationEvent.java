@@ -0,0 +1,25 @@
+package exe.tigrulya.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("exe.tigrulya.Iteration")
+@Label("Iteration")
+@Category("Advent of Code")
+@StackTrace(false)
+@Description("Single step of an iterative solver, e.g. one blink or one simulated second")
+public class IterationEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Iteration")
+    public int iteration;
+
+    @Label("Size")
+    @Description("Solver specific size of the state after the iteration, e.g. number of distinct stones")
+    public long size;
+}
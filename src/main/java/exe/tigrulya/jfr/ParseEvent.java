@@ -0,0 +1,24 @@
+package exe.tigrulya.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("exe.tigrulya.Parse")
+@Label("Parse")
+@Category("Advent of Code")
+@Description("Reading and parsing the puzzle input")
+public class ParseEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Input")
+    public String input;
+
+    @Label("Input Size")
+    @DataAmount
+    public long inputSize;
+}
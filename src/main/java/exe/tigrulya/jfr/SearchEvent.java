@@ -0,0 +1,26 @@
+package exe.tigrulya.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("exe.tigrulya.Search")
+@Label("Search")
+@Category("Advent of Code")
+@StackTrace(false)
+@Description("Single shortest path search")
+public class SearchEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Nodes Expanded")
+    @Description("Nodes taken from the queue")
+    public long nodesExpanded;
+
+    @Label("Edges Relaxed")
+    @Description("Times a shorter path to a node was found")
+    public long edgesRelaxed;
+}
@@ -0,0 +1,19 @@
+package exe.tigrulya.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("exe.tigrulya.Solve")
+@Label("Solve")
+@Category("Advent of Code")
+@Description("Solving an already parsed puzzle input")
+public class SolveEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,170 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+import exe.tigrulya.generator.InputGenerators;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Checks that solvers don't allocate more than their recorded budget:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.AllocationBudgets [--record] [--scale=N] [day16 | day16.Task1 ...]
+ * </pre>
+ * Budgets are bytes allocated by a warmed up {@code solve} per byte of input, so they hold across scales.
+ * {@code --record} stores the current measurements with some headroom, the check exits with 1 if any budget is exceeded.
+ * Solvers without a budget are only reported.
+ */
+public class AllocationBudgets {
+    public static final Path BUDGETS_FILE = Path.of("src", "main", "resources", "allocation-budgets.properties");
+
+    private static final int WARMUP_ITERATIONS = 1;
+    private static final int MEASURED_ITERATIONS = 2;
+
+    private static final double HEADROOM = 1.2;
+    // allocations of the measurement itself and one-off lazy initialization inside the JDK
+    private static final long ABSOLUTE_SLACK = 16 * 1024;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public record Measurement(SolverId solverId, long allocatedBytes, long inputSize) {
+        public double bytesPerInputByte() {
+            return (double) allocatedBytes / inputSize;
+        }
+
+        public boolean fits(double budget) {
+            return allocatedBytes <= budget * inputSize + ABSOLUTE_SLACK;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean record = Arrays.asList(args).contains("--record");
+        Runner.Options options = Runner.Options.parse(Arrays.stream(args)
+                .filter(arg -> !arg.equals("--record"))
+                .toArray(String[]::new));
+
+        if (!THREAD_MX_BEAN.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("JVM can't measure allocated bytes per thread");
+        }
+
+        List<Measurement> measurements = new ArrayList<>();
+        PrintStream stdout = System.out;
+        if (!options.verbose()) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        try {
+            for (var solverId : SolverId.discover()) {
+                if (options.matches(solverId)) {
+                    measurements.add(measure(solverId, InputGenerators.resolve(solverId, options.scale())));
+                }
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+
+        Map<String, Double> budgets = loadBudgets();
+        if (record) {
+            for (var measurement : measurements) {
+                budgets.put(measurement.solverId.toString(), Math.ceil(measurement.bytesPerInputByte() * HEADROOM * 100) / 100);
+            }
+            storeBudgets(budgets);
+            System.out.println("Recorded " + measurements.size() + " budgets to " + BUDGETS_FILE);
+        }
+
+        if (!printReport(measurements, budgets, System.out)) {
+            System.exit(1);
+        }
+    }
+
+    public static Measurement measure(SolverId solverId, Path input) throws IOException {
+        Solver<Object, Object> solver = solverId.create();
+        Object parsed = solver.parse(input);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+            solver.solve(parsed);
+        }
+
+        long allocatedBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+            long start = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            solver.solve(parsed);
+            allocatedBytes = Math.min(allocatedBytes, THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - start);
+        }
+
+        return new Measurement(solverId, allocatedBytes, Files.size(input));
+    }
+
+    /**
+     * @return false if any of the measurements exceeds its budget
+     */
+    public static boolean printReport(List<Measurement> measurements, Map<String, Double> budgets, PrintStream out) {
+        String rowFormat = "%-12s %14s %12s %12s  %s%n";
+        out.printf(rowFormat, "Solver", "Allocated", "B/input B", "Budget", "Status");
+
+        boolean withinBudgets = true;
+        for (var measurement : measurements) {
+            Double budget = budgets.get(measurement.solverId.toString());
+            String status;
+            if (budget == null) {
+                status = "no budget";
+            } else if (measurement.fits(budget)) {
+                status = "ok";
+            } else {
+                status = "EXCEEDED";
+                withinBudgets = false;
+            }
+
+            out.printf(rowFormat,
+                    measurement.solverId,
+                    measurement.allocatedBytes,
+                    String.format("%.2f", measurement.bytesPerInputByte()),
+                    budget == null ? "-" : String.format("%.2f", budget),
+                    status);
+        }
+        return withinBudgets;
+    }
+
+    public static Map<String, Double> loadBudgets() throws IOException {
+        Map<String, Double> budgets = new TreeMap<>(AllocationBudgets::compareSolvers);
+        if (!Files.exists(BUDGETS_FILE)) {
+            return budgets;
+        }
+
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(BUDGETS_FILE)) {
+            properties.load(in);
+        }
+        for (var name : properties.stringPropertyNames()) {
+            budgets.put(name, Double.parseDouble(properties.getProperty(name)));
+        }
+        return budgets;
+    }
+
+    private static void storeBudgets(Map<String, Double> budgets) throws IOException {
+        // written by hand instead of Properties.store to keep the file sorted and free of timestamps
+        try (Writer out = Files.newBufferedWriter(BUDGETS_FILE)) {
+            out.write("# Bytes allocated by solve per byte of input, updated with AllocationBudgets --record\n");
+            for (var budget : budgets.entrySet()) {
+                out.write(budget.getKey() + "=" + budget.getValue() + "\n");
+            }
+        }
+    }
+
+    private static int compareSolvers(String left, String right) {
+        return SolverId.parse(left).compareTo(SolverId.parse(right));
+    }
+}
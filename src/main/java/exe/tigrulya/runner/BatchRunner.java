@@ -0,0 +1,233 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Solves every file of a directory with one solver and writes a row per file:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.BatchRunner day16.Task1 inputs/ [--format=csv|json] [--output=file]
+ *     [--threads=N] [--verbose]
+ * </pre>
+ * Files are split in halves recursively over a work-stealing pool, so a few slow inputs don't hold back a shard.
+ * Every pool thread keeps a single solver instance for all of its files, together with the scratch structures
+ * shared per thread, like {@link exe.tigrulya.graph.GraphSearch#forCurrentThread}.
+ * Rows go to stdout unless {@code --output} is set, the summary goes to stderr.
+ */
+public class BatchRunner {
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    public record Options(SolverId solverId, Path inputDir, Format format, Path output, int threads, boolean verbose) {
+        public static Options parse(String[] args) {
+            Format format = Format.CSV;
+            Path output = null;
+            int threads = Runtime.getRuntime().availableProcessors();
+            boolean verbose = false;
+            List<String> positional = new ArrayList<>();
+
+            for (var arg : args) {
+                if (arg.startsWith("--format=")) {
+                    format = Format.valueOf(value(arg).toUpperCase());
+                } else if (arg.startsWith("--output=")) {
+                    output = Path.of(value(arg));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(value(arg));
+                } else if (arg.equals("--verbose")) {
+                    verbose = true;
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                } else {
+                    positional.add(arg);
+                }
+            }
+
+            if (positional.size() != 2) {
+                throw new IllegalArgumentException("Expected <dayN.TaskM> <input dir>, got " + positional);
+            }
+            return new Options(SolverId.parse(positional.get(0)), Path.of(positional.get(1)), format, output, threads, verbose);
+        }
+
+        private static String value(String arg) {
+            return arg.substring(arg.indexOf('=') + 1);
+        }
+    }
+
+    public record FileRun(Path input, SolverRun run) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<Path> inputs = listInputs(options.inputDir());
+
+        PrintStream stdout = System.out;
+        if (!options.verbose()) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        long start = System.nanoTime();
+        List<FileRun> runs;
+        try {
+            runs = runAll(options.solverId(), inputs, options.threads());
+        } finally {
+            System.setOut(stdout);
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        if (options.output() == null) {
+            PrintWriter out = new PrintWriter(stdout);
+            write(runs, options.format(), out);
+            out.flush();
+        } else {
+            try (Writer out = Files.newBufferedWriter(options.output())) {
+                write(runs, options.format(), out);
+            }
+        }
+
+        long failed = runs.stream().filter(run -> !run.run().succeeded()).count();
+        System.err.printf("%s: %d files, %d failed, %.1f ms wall, %.1f files/s on %d threads%n",
+                options.solverId(), runs.size(), failed, wallNanos / 1_000_000.0,
+                runs.size() / (wallNanos / 1_000_000_000.0), options.threads());
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    public static List<FileRun> runAll(SolverId solverId, List<Path> inputs, int threads) {
+        FileRun[] runs = new FileRun[inputs.size()];
+        ThreadLocal<Solver<Object, Object>> solvers = ThreadLocal.withInitial(solverId::create);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new Shard(solverId, solvers, inputs, runs, 0, inputs.size()));
+        } finally {
+            pool.shutdown();
+        }
+        return List.of(runs);
+    }
+
+    public static void write(List<FileRun> runs, Format format, Writer out) throws IOException {
+        switch (format) {
+            case CSV -> writeCsv(runs, out);
+            case JSON -> writeJson(runs, out);
+        }
+    }
+
+    private static List<Path> listInputs(Path inputDir) throws IOException {
+        try (Stream<Path> files = Files.list(inputDir)) {
+            return files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(Path::toString))
+                    .toList();
+        }
+    }
+
+    private static void writeCsv(List<FileRun> runs, Writer out) throws IOException {
+        out.write("file,result,parse_ns,solve_ns,cpu_ns,allocated_bytes,error\n");
+        for (var fileRun : runs) {
+            SolverRun run = fileRun.run();
+            out.write(csv(fileRun.input().toString()) + ","
+                    + (run.succeeded() ? csv(String.valueOf(run.result())) : "") + ","
+                    + run.parseNanos() + ","
+                    + run.solveNanos() + ","
+                    + run.cpuNanos() + ","
+                    + run.allocatedBytes() + ","
+                    + (run.succeeded() ? "" : csv(String.valueOf(run.error()))) + "\n");
+        }
+    }
+
+    private static void writeJson(List<FileRun> runs, Writer out) throws IOException {
+        out.write("[\n");
+        for (int i = 0; i < runs.size(); ++i) {
+            SolverRun run = runs.get(i).run();
+            out.write("  {\"file\": " + json(runs.get(i).input().toString())
+                    + ", \"result\": " + (run.succeeded() ? json(String.valueOf(run.result())) : "null")
+                    + ", \"parseNanos\": " + run.parseNanos()
+                    + ", \"solveNanos\": " + run.solveNanos()
+                    + ", \"cpuNanos\": " + run.cpuNanos()
+                    + ", \"allocatedBytes\": " + run.allocatedBytes()
+                    + ", \"error\": " + (run.succeeded() ? "null" : json(String.valueOf(run.error())))
+                    + (i + 1 < runs.size() ? "},\n" : "}\n"));
+        }
+        out.write("]\n");
+    }
+
+    static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static String json(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    @SuppressWarnings("serial")
+    private static class Shard extends RecursiveAction {
+        private final SolverId solverId;
+        private final ThreadLocal<Solver<Object, Object>> solvers;
+        private final List<Path> inputs;
+        private final FileRun[] runs;
+        private final int from;
+        private final int to;
+
+        Shard(SolverId solverId, ThreadLocal<Solver<Object, Object>> solvers, List<Path> inputs, FileRun[] runs,
+              int from, int to) {
+            this.solverId = solverId;
+            this.solvers = solvers;
+            this.inputs = inputs;
+            this.runs = runs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Shard(solverId, solvers, inputs, runs, from, middle),
+                        new Shard(solverId, solvers, inputs, runs, middle, to));
+                return;
+            }
+
+            for (int i = from; i < to; ++i) {
+                Path input = inputs.get(i);
+                runs[i] = new FileRun(input, SolverRun.run(solverId, solvers.get(), input));
+            }
+        }
+    }
+}
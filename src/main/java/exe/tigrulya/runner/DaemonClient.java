@@ -0,0 +1,83 @@
+package exe.tigrulya.runner;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Sends requests to a running {@link SolverDaemon}:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.DaemonClient [--socket=PATH] [--repeat=N] dayN.TaskM &lt;input | - for stdin&gt;
+ * java -cp target/classes exe.tigrulya.runner.DaemonClient [--socket=PATH] stop
+ * </pre>
+ * With {@code --repeat} the same request is sent N times over one connection, printing every answer.
+ */
+public class DaemonClient {
+    public static void main(String[] args) throws IOException {
+        Path socket = SolverDaemon.DEFAULT_SOCKET;
+        int repeat = 1;
+        int argsStart = 0;
+        for (; argsStart < args.length && args[argsStart].startsWith("--"); ++argsStart) {
+            String arg = args[argsStart];
+            if (arg.startsWith("--socket=")) {
+                socket = Path.of(arg.substring(arg.indexOf('=') + 1));
+            } else if (arg.startsWith("--repeat=")) {
+                repeat = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        int requestArgs = args.length - argsStart;
+        boolean stop = requestArgs == 1 && args[argsStart].equals("stop");
+        if (!stop && requestArgs != 2) {
+            System.err.println("Usage: DaemonClient [--socket=PATH] [--repeat=N] <dayN.TaskM> <input | -> | stop");
+            System.exit(1);
+        }
+
+        byte[] request;
+        if (stop) {
+            request = "stop\n".getBytes(StandardCharsets.UTF_8);
+        } else if (args[argsStart + 1].equals("-")) {
+            byte[] input = System.in.readAllBytes();
+            byte[] header = (args[argsStart] + " - " + input.length + "\n").getBytes(StandardCharsets.UTF_8);
+            request = new byte[header.length + input.length];
+            System.arraycopy(header, 0, request, 0, header.length);
+            System.arraycopy(input, 0, request, header.length, input.length);
+        } else {
+            // the daemon may run in another directory
+            String input = Path.of(args[argsStart + 1]).toAbsolutePath().toString();
+            request = (args[argsStart] + " " + input + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean failed = false;
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            OutputStream out = Channels.newOutputStream(channel);
+
+            for (int i = 0; i < (stop ? 1 : repeat); ++i) {
+                long start = System.nanoTime();
+                out.write(request);
+                out.flush();
+                String response = SolverDaemon.readLine(in);
+                if (response == null) {
+                    throw new IOException("Daemon closed the connection");
+                }
+                failed |= !response.startsWith("OK");
+                System.out.println(response + "  (round trip " + (System.nanoTime() - start) / 1000 + " us)");
+            }
+        }
+
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+import exe.tigrulya.StreamingSolver;
+import exe.tigrulya.generator.InputGenerator;
+import exe.tigrulya.generator.InputGenerators;
+import exe.tigrulya.graph.Graph;
+import exe.tigrulya.graph.GraphSearch;
+import exe.tigrulya.grid.Grid;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static exe.tigrulya.Utils.getResource;
+
+/**
+ * Runs optimized solvers against the straightforward implementations kept as their oracles, first on the shipped
+ * input and then on random ones, and stops at the first mismatch:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.DifferentialCheck [--cases=N] [--seed=N] [--verbose] [day19 | day19.Task1 ...]
+ * </pre>
+ * Every solver's answer to its shipped input is checked first against {@link #EXPECTED_RESULTS}, recorded before
+ * any of the optimizations, so a bug shared by a solver and its oracle still shows up.
+ * The mismatching input is kept in {@link #FAILURES_DIR}, rerunning with the same seed reproduces it.
+ * Streaming solvers are checked against their own file-based {@code solve} on a tenth as many puzzle-sized inputs,
+ * read in chunks of random size. The searches of {@link GraphSearch} are checked against a plain Dijkstra over
+ * a priority queue under the days using them, on their shipped mazes and on random grids with weights they support.
+ */
+public class DifferentialCheck {
+    public static final Path FAILURES_DIR = Path.of("target", "differential");
+    public static final String EXPECTED_RESULTS = "expected-results.properties";
+
+    private static final int DEFAULT_CASES = 100;
+    private static final long DEFAULT_SEED = 2024;
+    // random tracks are too small for the puzzle's threshold of 100
+    private static final long SMALL_TRACK_THRESHOLD = 2;
+    // a few hundred values per run, so every puzzle-sized input is merged from several spilled runs
+    private static final long SPILLING_SORT_MEMORY = 4096;
+    private static final int MAX_CHUNK = 4096;
+    // generated puzzle-sized inputs cover a lot more per case than the small random ones
+    private static final int FULL_SIZE_CASE_DIVISOR = 10;
+    private static final int MAX_CELL_WEIGHT = 9;
+
+    @FunctionalInterface
+    public interface Oracle {
+        Object solve(Path input) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface CaseGenerator {
+        void generate(Random random, Writer out) throws IOException;
+    }
+
+    // checks without case generator run on the shipped input only
+    public record Check(SolverId solverId, String name, Oracle reference, Oracle candidate, CaseGenerator cases,
+                        boolean fullSizeCases) {
+        public int caseCount(int cases) {
+            if (this.cases == null) {
+                return 0;
+            }
+            return fullSizeCases ? Math.max(1, cases / FULL_SIZE_CASE_DIVISOR) : cases;
+        }
+    }
+
+    public record Mismatch(Check check, String inputName, Path input, Object expected, Object actual) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cases = DEFAULT_CASES;
+        long seed = DEFAULT_SEED;
+        List<String> rest = new ArrayList<>();
+        for (var arg : args) {
+            if (arg.startsWith("--cases=")) {
+                cases = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring(arg.indexOf('=') + 1));
+            } else {
+                rest.add(arg);
+            }
+        }
+        Runner.Options options = Runner.Options.parse(rest.toArray(String[]::new));
+
+        PrintStream stdout = System.out;
+        if (!options.verbose()) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        try {
+            for (var check : checks()) {
+                if (!options.matches(check.solverId())) {
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                Optional<Mismatch> mismatch = run(check, cases, seed);
+                if (mismatch.isPresent()) {
+                    printMismatch(mismatch.get(), seed, stdout);
+                    System.exit(1);
+                }
+                stdout.printf("%-12s %-34s %d inputs match, %d ms%n",
+                        check.solverId(), check.name(), check.caseCount(cases) + 1, (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    public static List<Check> checks() throws IOException {
+        List<Check> checks = new ArrayList<>();
+        Properties expectedResults = new Properties();
+        try (Reader in = Files.newBufferedReader(getResource(EXPECTED_RESULTS))) {
+            expectedResults.load(in);
+        }
+        // the shipped input only, a missing answer counts as a mismatch
+        for (var solverId : SolverId.discover()) {
+            String expected = expectedResults.getProperty(solverId.toString());
+            Oracle solving = solving(solverId::create);
+            checks.add(new Check(solverId, "expected result",
+                    input -> expected,
+                    input -> String.valueOf(solving.solve(input)),
+                    null,
+                    false));
+        }
+
+        checks.add(new Check(new SolverId(19, 1), "substring search vs trie",
+                solving(exe.tigrulya.day19.Task1.Reference::new),
+                solving(exe.tigrulya.day19.Task1::new),
+                DifferentialCheck::towelsAndDesigns,
+                false));
+        checks.add(new Check(new SolverId(20, 1), "search per wall vs two searches",
+                solving(() -> new exe.tigrulya.day20.Task1.Reference(SMALL_TRACK_THRESHOLD)),
+                solving(() -> new exe.tigrulya.day20.Task1(SMALL_TRACK_THRESHOLD)),
+                DifferentialCheck::track,
+                false));
+
+        checks.add(new Check(new SolverId(20, 1), "plain dijkstra vs bfs",
+                searching(false, DifferentialCheck::plainDijkstra),
+                searching(false, (search, graph, grid, start, end) ->
+                        search.bfs(graph, start, GraphSearch.NO_NODE).distances()),
+                weightedGrid("."),
+                false));
+        checks.add(new Check(new SolverId(16, 1), "plain dijkstra vs 0-1 bfs",
+                searching(false, DifferentialCheck::plainDijkstra),
+                searching(false, (search, graph, grid, start, end) ->
+                        search.zeroOneBfs(graph, start, GraphSearch.NO_NODE).distances()),
+                weightedGrid("01"),
+                false));
+        checks.add(new Check(new SolverId(16, 1), "plain dijkstra vs bucket queue",
+                searching(false, DifferentialCheck::plainDijkstra),
+                searching(false, (search, graph, grid, start, end) ->
+                        search.dijkstra(graph, start, GraphSearch.NO_NODE, MAX_CELL_WEIGHT).distances()),
+                weightedGrid("0123456789"),
+                false));
+        // the manhattan distance never overestimates with weights of at least 1
+        checks.add(new Check(new SolverId(16, 1), "plain dijkstra vs a*",
+                searching(true, DifferentialCheck::plainDijkstra),
+                searching(true, (search, graph, grid, start, end) ->
+                        search.aStar(graph, start, end, node -> grid.distance(node, end)).distances()),
+                weightedGrid("123456789"),
+                false));
+
+        checks.add(new Check(new SolverId(2, 2), "skip each level vs longest chain",
+                solving(exe.tigrulya.day2.Task2.Reference::new),
+                solving(exe.tigrulya.day2.Task2::new),
+                DifferentialCheck::reports,
+                false));
+        checks.add(new Check(new SolverId(1, 1), "in-memory sort vs spilled runs",
+                solving(exe.tigrulya.day1.Task1::new),
+                streaming(() -> new exe.tigrulya.day1.Task1(SPILLING_SORT_MEMORY)),
+                (random, out) -> InputGenerators.generate(1, 1, random, out),
+                true));
+
+        for (var solverId : SolverId.discover()) {
+            if (solverId.create() instanceof StreamingSolver<?>) {
+                checks.add(new Check(solverId, "parsed file vs stream",
+                        solving(solverId::create),
+                        streaming(() -> (StreamingSolver<?>) solverId.create()),
+                        (random, out) -> InputGenerators.generate(solverId.day(), 1, random, out),
+                        true));
+            }
+        }
+        return checks;
+    }
+
+    public static Optional<Mismatch> run(Check check, int cases, long seed) throws IOException {
+        Optional<Mismatch> mismatch = compare(check, check.solverId().inputResource(),
+                getResource(check.solverId().inputResource()));
+        if (mismatch.isPresent()) {
+            return mismatch;
+        }
+
+        Random random = new Random(seed);
+        Path input = Files.createTempFile("differential-", ".txt");
+        try {
+            for (int i = 0; i < check.caseCount(cases); ++i) {
+                try (Writer out = Files.newBufferedWriter(input, StandardCharsets.US_ASCII)) {
+                    check.cases().generate(random, out);
+                }
+
+                mismatch = compare(check, "case " + i, input);
+                if (mismatch.isPresent()) {
+                    Path kept = FAILURES_DIR.resolve(check.solverId() + "-case-" + i + ".txt");
+                    Files.createDirectories(FAILURES_DIR);
+                    Files.copy(input, kept, StandardCopyOption.REPLACE_EXISTING);
+                    Mismatch found = mismatch.get();
+                    return Optional.of(new Mismatch(check, found.inputName(), kept, found.expected(), found.actual()));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(input);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Mismatch> compare(Check check, String inputName, Path input) {
+        Object expected = outcome(check.reference(), input);
+        Object actual = outcome(check.candidate(), input);
+        return Objects.equals(expected, actual)
+                ? Optional.empty()
+                : Optional.of(new Mismatch(check, inputName, input, expected, actual));
+    }
+
+    private static Object outcome(Oracle oracle, Path input) {
+        try {
+            return oracle.solve(input);
+        } catch (Exception e) {
+            return "threw " + e;
+        }
+    }
+
+    private static void printMismatch(Mismatch mismatch, long seed, PrintStream out) {
+        out.printf("MISMATCH %s %s on %s (seed %d): %s%n",
+                mismatch.check().solverId(), mismatch.check().name(), mismatch.inputName(), seed, mismatch.input());
+        out.println("  reference: " + mismatch.expected());
+        out.println("  candidate: " + mismatch.actual());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Oracle solving(Supplier<? extends Solver<?, ?>> solvers) {
+        return input -> {
+            Solver<Object, Object> solver = (Solver<Object, Object>) solvers.get();
+            return solver.solve(solver.parse(input));
+        };
+    }
+
+    private static Oracle streaming(Supplier<? extends StreamingSolver<?>> solvers) {
+        return input -> {
+            StreamingSolver<?> solver = solvers.get();
+            // seeded by the input, so a kept failing input replays with the same chunks
+            Random chunks = new Random(Files.size(input));
+            try (ReadableByteChannel channel = new ChoppedChannel(Files.newByteChannel(input), chunks)) {
+                return solver.solve(channel);
+            }
+        };
+    }
+
+    /**
+     * Searches the grid read from the input: {@code #} is a wall, a digit costs as much to step on, any other cell 1,
+     * from {@code S} to {@code E}. Returns the distance to the end or to every cell.
+     */
+    private static Oracle searching(boolean endOnly, GridSearch algorithm) {
+        return input -> {
+            Grid grid = Grid.parse(input);
+            int start = grid.indexOf((byte) 'S');
+            int end = grid.indexOf((byte) 'E');
+            Graph graph = (node, edges) -> {
+                for (int direction = Grid.UP; direction <= Grid.LEFT; ++direction) {
+                    int neighbour = grid.neighbour(node, direction);
+                    byte cell = grid.get(neighbour);
+                    if (cell != Grid.BORDER && cell != '#') {
+                        edges.edge(neighbour, cell >= '0' && cell <= '9' ? cell - '0' : 1);
+                    }
+                }
+            };
+
+            long[] distances = algorithm.search(new GraphSearch(grid.size(), "differential"), graph, grid, start, end);
+            return endOnly ? (Object) distances[end] : Arrays.stream(distances).boxed().toList();
+        };
+    }
+
+    @FunctionalInterface
+    private interface GridSearch {
+        long[] search(GraphSearch search, Graph graph, Grid grid, int start, int end);
+    }
+
+    /**
+     * Textbook Dijkstra over a priority queue with stale entries skipped, the oracle of all the searches.
+     */
+    private static long[] plainDijkstra(GraphSearch search, Graph graph, Grid grid, int start, int end) {
+        long[] distances = new long[grid.size()];
+        Arrays.fill(distances, GraphSearch.UNREACHABLE);
+        distances[start] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong((long[] entry) -> entry[0]));
+        queue.add(new long[]{0, start});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] > distances[node]) {
+                continue;
+            }
+            graph.forEachEdge(node, (neighbour, weight) -> {
+                if (entry[0] + weight < distances[neighbour]) {
+                    distances[neighbour] = entry[0] + weight;
+                    queue.add(new long[]{distances[neighbour], neighbour});
+                }
+            });
+        }
+        return distances;
+    }
+
+    private static void towelsAndDesigns(Random random, Writer out) throws IOException {
+        String colors = "wubrg".substring(0, InputGenerator.between(random, 2, 5));
+        List<String> towels = new ArrayList<>();
+        int towelCount = InputGenerator.between(random, 1, 8);
+        for (int i = 0; i < towelCount; ++i) {
+            String towel = randomString(random, colors, InputGenerator.between(random, 1, 4));
+            if (!towels.contains(towel)) {
+                towels.add(towel);
+            }
+        }
+        out.write(String.join(", ", towels));
+        out.write("\n\n");
+
+        int designCount = InputGenerator.between(random, 1, 20);
+        for (int i = 0; i < designCount; ++i) {
+            out.write(randomString(random, colors, InputGenerator.between(random, 1, 14)));
+            out.write('\n');
+        }
+    }
+
+    private static void track(Random random, Writer out) throws IOException {
+        int columns = InputGenerator.between(random, 5, 16);
+        int rows = InputGenerator.between(random, 5, 16);
+        char[][] cells = new char[rows][columns];
+        for (int y = 0; y < rows; ++y) {
+            for (int x = 0; x < columns; ++x) {
+                boolean inside = y > 0 && y < rows - 1 && x > 0 && x < columns - 1;
+                cells[y][x] = inside && random.nextInt(10) < 6 ? '.' : '#';
+            }
+        }
+
+        int startX = InputGenerator.between(random, 1, columns - 2);
+        int startY = InputGenerator.between(random, 1, rows - 2);
+        int endX;
+        int endY;
+        do {
+            endX = InputGenerator.between(random, 1, columns - 2);
+            endY = InputGenerator.between(random, 1, rows - 2);
+        } while (endX == startX && endY == startY);
+
+        // carve a corridor between them, so the end is always reachable
+        boolean horizontalFirst = random.nextBoolean();
+        int x = startX;
+        int y = startY;
+        while (x != endX || y != endY) {
+            if (horizontalFirst && x != endX || y == endY) {
+                x += Integer.signum(endX - x);
+            } else {
+                y += Integer.signum(endY - y);
+            }
+            cells[y][x] = '.';
+        }
+        cells[startY][startX] = 'S';
+        cells[endY][endX] = 'E';
+
+        for (char[] row : cells) {
+            out.write(row);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Grids of cells drawn from {@code cells} with a few walls, the start and the end anywhere inside.
+     */
+    private static CaseGenerator weightedGrid(String cells) {
+        return (random, out) -> {
+            int columns = InputGenerator.between(random, 3, 16);
+            int rows = InputGenerator.between(random, 3, 16);
+            char[][] grid = new char[rows][columns];
+            for (int y = 0; y < rows; ++y) {
+                for (int x = 0; x < columns; ++x) {
+                    grid[y][x] = random.nextInt(4) == 0 ? '#' : cells.charAt(random.nextInt(cells.length()));
+                }
+            }
+            int start = random.nextInt(rows * columns);
+            int end;
+            do {
+                end = random.nextInt(rows * columns);
+            } while (end == start);
+            grid[start / columns][start % columns] = 'S';
+            grid[end / columns][end % columns] = 'E';
+
+            for (char[] row : grid) {
+                out.write(row);
+                out.write('\n');
+            }
+        };
+    }
+
+    private static void reports(Random random, Writer out) throws IOException {
+        int reportCount = InputGenerator.between(random, 1, 50);
+        for (int i = 0; i < reportCount; ++i) {
+            // some longer than the reports compared pairwise by ReportSafety
+            int levelCount = random.nextInt(10) == 0
+                    ? InputGenerator.between(random, 33, 200)
+                    : InputGenerator.between(random, 1, 12);
+            int direction = random.nextBoolean() ? 1 : -1;
+            long level = InputGenerator.between(random, 1, 30);
+            for (int j = 0; j < levelCount; ++j) {
+                // mostly safe steps, so reports are often one or two removals away from safe
+                level += random.nextInt(levelCount < 20 ? 8 : 80) == 0
+                        ? InputGenerator.between(random, -5, 5)
+                        : direction * InputGenerator.between(random, 1, 3);
+                out.write((j == 0 ? "" : " ") + level);
+            }
+            out.write('\n');
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Hands out the input in chunks of random size, so streaming solvers hit their buffer boundaries
+     * at every possible position even on small inputs.
+     */
+    private static class ChoppedChannel implements ReadableByteChannel {
+        private final ReadableByteChannel delegate;
+        private final Random random;
+
+        ChoppedChannel(ReadableByteChannel delegate, Random random) {
+            this.delegate = delegate;
+            this.random = random;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!dst.hasRemaining()) {
+                return 0;
+            }
+
+            int limit = dst.limit();
+            dst.limit(dst.position() + Math.min(dst.remaining(), 1 + random.nextInt(MAX_CHUNK)));
+            try {
+                return delegate.read(dst);
+            } finally {
+                dst.limit(limit);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.SolverId;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Runs the {@code main} of every matching solver in a single JVM, so their output is the same as running them
+ * one by one without paying for a JVM start each. Built with a class data sharing archive by the {@code cds} profile:
+ * <pre>
+ * mvn -Pcds package
+ * java @target/cds/train.args                        # training run over all solvers, writes target/cds/solvers.jsa
+ * java @target/cds/run.args [day16 | day16.Task1 ...]
+ * </pre>
+ * The archive holds the classes loaded and linked by the training run, so later starts map them instead of
+ * parsing and verifying class files again. It's tied to the jar and the JDK: rebuild it after either changes,
+ * the JVM ignores a stale archive with a warning and starts without it.
+ */
+public class Launcher {
+    public static void main(String[] args) throws Exception {
+        Runner.Options options = Runner.Options.parse(args);
+
+        int failed = 0;
+        for (var solverId : SolverId.discover()) {
+            if (!options.matches(solverId)) {
+                continue;
+            }
+
+            System.out.println("== " + solverId);
+            long start = System.nanoTime();
+            try {
+                Method main = Class.forName(solverId.className()).getMethod("main", String[].class);
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                System.out.println(solverId + " failed: " + e.getCause());
+                ++failed;
+            }
+            if (options.verbose()) {
+                System.err.printf("%s took %.1f ms%n", solverId, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        }
+
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package exe.tigrulya.runner;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+import exe.tigrulya.generator.InputGenerators;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs solvers one at a time and reports the heap and the garbage collections of their parse and solve:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.MemoryReport [--format=csv|json] [--output=file] [--scale=N]
+ *     [--verbose] [day16 | day16.Task1 ...]
+ * </pre>
+ * Every phase gets a row with
+ * <ul>
+ *     <li>heap used before and after it, garbage included;</li>
+ *     <li>peak heap, the sum of the heap pools' peaks, so an upper bound when they peak at different moments;</li>
+ *     <li>peak live set, the most heap left after any collection during the phase or the one forced after it;</li>
+ *     <li>retained heap after the phase ends and a full collection runs, the parsed input after parse
+ *     and the input with the result after solve, plus whatever the JVM itself holds and scratch structures kept
+ *     per thread, like {@link exe.tigrulya.graph.GraphSearch#forCurrentThread};</li>
+ *     <li>collections and milliseconds spent in them during the phase, the forced ones excluded.</li>
+ * </ul>
+ * The collections forced between phases make the retained and live set figures exact, they are meaningless
+ * with {@code -XX:+DisableExplicitGC}. Run with a fixed {@code -Xmx} to compare footprints between changes.
+ */
+public class MemoryReport {
+    public enum Phase {
+        PARSE,
+        SOLVE
+    }
+
+    public record PhaseMemory(
+            SolverId solverId,
+            Phase phase,
+            long heapBeforeBytes,
+            long heapAfterBytes,
+            long peakHeapBytes,
+            long peakLiveBytes,
+            long retainedBytes,
+            long gcCount,
+            long gcMillis,
+            Throwable error) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BatchRunner.Format format = BatchRunner.Format.CSV;
+        Path output = null;
+        List<String> rest = new ArrayList<>();
+        for (var arg : args) {
+            if (arg.startsWith("--format=")) {
+                format = BatchRunner.Format.valueOf(arg.substring(arg.indexOf('=') + 1).toUpperCase());
+            } else if (arg.startsWith("--output=")) {
+                output = Path.of(arg.substring(arg.indexOf('=') + 1));
+            } else {
+                rest.add(arg);
+            }
+        }
+        Runner.Options options = Runner.Options.parse(rest.toArray(String[]::new));
+
+        List<PhaseMemory> rows = new ArrayList<>();
+        PrintStream stdout = System.out;
+        if (!options.verbose()) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        try (Probe probe = Probe.start()) {
+            for (var solverId : SolverId.discover()) {
+                if (options.matches(solverId)) {
+                    rows.addAll(measure(solverId, InputGenerators.resolve(solverId, options.scale()), probe));
+                }
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+
+        if (output == null) {
+            PrintWriter out = new PrintWriter(stdout);
+            write(rows, format, out);
+            out.flush();
+        } else {
+            try (Writer out = Files.newBufferedWriter(output)) {
+                write(rows, format, out);
+            }
+        }
+
+        if (rows.stream().anyMatch(row -> row.error() != null)) {
+            System.exit(1);
+        }
+    }
+
+    public static List<PhaseMemory> measure(SolverId solverId, Path input, Probe probe) {
+        List<PhaseMemory> rows = new ArrayList<>();
+        Solver<Object, Object> solver = solverId.create();
+        probe.collect();
+
+        Object parsed;
+        probe.begin();
+        try {
+            parsed = solver.parse(input);
+        } catch (Throwable e) {
+            rows.add(probe.end(solverId, Phase.PARSE, e));
+            return rows;
+        }
+        rows.add(probe.end(solverId, Phase.PARSE, null));
+
+        Object result = null;
+        Throwable error = null;
+        probe.begin();
+        try {
+            result = solver.solve(parsed);
+        } catch (Throwable e) {
+            error = e;
+        }
+        rows.add(probe.end(solverId, Phase.SOLVE, error));
+        // the retained heap after solve is meant to include both
+        Reference.reachabilityFence(parsed);
+        Reference.reachabilityFence(result);
+        return rows;
+    }
+
+    public static void write(List<PhaseMemory> rows, BatchRunner.Format format, Writer out) throws IOException {
+        switch (format) {
+            case CSV -> writeCsv(rows, out);
+            case JSON -> writeJson(rows, out);
+        }
+    }
+
+    private static void writeCsv(List<PhaseMemory> rows, Writer out) throws IOException {
+        out.write("solver,phase,heap_before_bytes,heap_after_bytes,peak_heap_bytes,peak_live_bytes,retained_bytes,"
+                + "gc_count,gc_ms,error\n");
+        for (var row : rows) {
+            out.write(row.solverId() + ","
+                    + row.phase().name().toLowerCase() + ","
+                    + row.heapBeforeBytes() + ","
+                    + row.heapAfterBytes() + ","
+                    + row.peakHeapBytes() + ","
+                    + row.peakLiveBytes() + ","
+                    + row.retainedBytes() + ","
+                    + row.gcCount() + ","
+                    + row.gcMillis() + ","
+                    + (row.error() == null ? "" : BatchRunner.csv(String.valueOf(row.error()))) + "\n");
+        }
+    }
+
+    private static void writeJson(List<PhaseMemory> rows, Writer out) throws IOException {
+        out.write("[\n");
+        for (int i = 0; i < rows.size(); ++i) {
+            PhaseMemory row = rows.get(i);
+            out.write("  {\"solver\": \"" + row.solverId() + "\""
+                    + ", \"phase\": \"" + row.phase().name().toLowerCase() + "\""
+                    + ", \"heapBeforeBytes\": " + row.heapBeforeBytes()
+                    + ", \"heapAfterBytes\": " + row.heapAfterBytes()
+                    + ", \"peakHeapBytes\": " + row.peakHeapBytes()
+                    + ", \"peakLiveBytes\": " + row.peakLiveBytes()
+                    + ", \"retainedBytes\": " + row.retainedBytes()
+                    + ", \"gcCount\": " + row.gcCount()
+                    + ", \"gcMillis\": " + row.gcMillis()
+                    + ", \"error\": " + (row.error() == null ? "null" : BatchRunner.json(String.valueOf(row.error())))
+                    + (i + 1 < rows.size() ? "},\n" : "}\n"));
+        }
+        out.write("]\n");
+    }
+
+    /**
+     * Samples the heap pools and listens to the collectors' notifications, which carry the heap left after
+     * each collection. Notifications arrive on a JMX thread, so phase ends wait for the ones of their collections.
+     */
+    public static class Probe implements NotificationListener, AutoCloseable {
+        private static final long NOTIFICATION_TIMEOUT_MILLIS = 1000;
+
+        private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        private final Set<String> heapPoolNames = heapPools.stream()
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+        private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+        // collections before the listener was added, they never notify it
+        private final long gcCountBeforeListening;
+        private long notifications;
+        private long peakLiveBytes;
+
+        private long heapBeforeBytes;
+        private long gcCountBefore;
+        private long gcMillisBefore;
+
+        private Probe() {
+            gcCountBeforeListening = gcCount();
+        }
+
+        /**
+         * Creates a probe listening to the collectors until it's closed.
+         */
+        public static Probe start() {
+            Probe probe = new Probe();
+            for (var collector : probe.collectors) {
+                ((NotificationEmitter) collector).addNotificationListener(probe, null, null);
+            }
+            return probe;
+        }
+
+        public void begin() {
+            for (var pool : heapPools) {
+                pool.resetPeakUsage();
+            }
+            synchronized (this) {
+                peakLiveBytes = 0;
+            }
+            heapBeforeBytes = heapUsed();
+            gcCountBefore = gcCount();
+            gcMillisBefore = gcMillis();
+        }
+
+        public PhaseMemory end(SolverId solverId, Phase phase, Throwable error) {
+            long heapAfterBytes = heapUsed();
+            long peakHeapBytes = 0;
+            for (var pool : heapPools) {
+                peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+            long gcCount = gcCount() - gcCountBefore;
+            long gcMillis = gcMillis() - gcMillisBefore;
+
+            long retainedBytes = collect();
+            long peakLiveBytes;
+            synchronized (this) {
+                peakLiveBytes = Math.max(this.peakLiveBytes, retainedBytes);
+            }
+            return new PhaseMemory(solverId, phase, heapBeforeBytes, heapAfterBytes, peakHeapBytes, peakLiveBytes,
+                    retainedBytes, gcCount, gcMillis, error);
+        }
+
+        /**
+         * Runs a full collection once the notifications of the earlier ones are in.
+         *
+         * @return heap used after it
+         */
+        public long collect() {
+            awaitNotifications(gcCount());
+            System.gc();
+            awaitNotifications(gcCount());
+            return heapUsed();
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                return;
+            }
+
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long liveBytes = 0;
+            for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+                if (heapPoolNames.contains(pool.getKey())) {
+                    liveBytes += pool.getValue().getUsed();
+                }
+            }
+
+            synchronized (this) {
+                peakLiveBytes = Math.max(peakLiveBytes, liveBytes);
+                ++notifications;
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void close() {
+            for (var collector : collectors) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // already removed by an earlier close
+                }
+            }
+        }
+
+        private synchronized void awaitNotifications(long count) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(NOTIFICATION_TIMEOUT_MILLIS);
+            try {
+                long remaining;
+                while (notifications < count - gcCountBeforeListening && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private long heapUsed() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private long gcCount() {
+            long count = 0;
+            for (var collector : collectors) {
+                count += Math.max(0, collector.getCollectionCount());
+            }
+            return count;
+        }
+
+        private long gcMillis() {
+            long millis = 0;
+            for (var collector : collectors) {
+                millis += Math.max(0, collector.getCollectionTime());
+            }
+            return millis;
+        }
+    }
+}
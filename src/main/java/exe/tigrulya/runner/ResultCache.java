@@ -0,0 +1,198 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.SolverId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static exe.tigrulya.Utils.getResource;
+
+/**
+ * On-disk store of solver results addressed by the hash of the input contents and the solvers' code.
+ * The code hash covers every class file under {@value #CODE_ROOT}, since solvers depend on shared code like the grid,
+ * the graph search and the parsers, so any rebuilt class invalidates all entries.
+ * The least recently used entries are evicted once the store holds more than {@code maxEntries} results.
+ */
+public class ResultCache {
+    public static final Path DEFAULT_DIR = Path.of("target", "result-cache");
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final long HASH_CHUNK_SIZE = 1L << 30;
+    private static final String ENTRY_SUFFIX = ".result";
+    private static final String CODE_ROOT = "exe/tigrulya";
+
+    private final Path dir;
+    private final int maxEntries;
+    private volatile byte[] codeHash;
+    private final Map<Path, InputHash> inputHashes = new ConcurrentHashMap<>();
+
+    public ResultCache(Path dir, int maxEntries) {
+        this.dir = dir;
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<Object> get(SolverId solverId, Path input) throws IOException {
+        Path entry = entry(solverId, input);
+        try (InputStream in = Files.newInputStream(entry);
+             ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            Object result = objectIn.readObject();
+            // modification time serves as the access time for eviction
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(result);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (ClassNotFoundException | IOException e) {
+            // entry written by an incompatible build or truncated by a crashed run
+            Files.deleteIfExists(entry);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the result unless it isn't {@link Serializable}.
+     */
+    public void put(SolverId solverId, Path input, Object result) throws IOException {
+        if (!(result instanceof Serializable)) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(result);
+        } catch (NotSerializableException e) {
+            return;
+        }
+
+        Path entry = entry(solverId, input);
+        Files.createDirectories(dir);
+        // concurrent writers of the same entry write the same bytes, so the last move wins harmlessly
+        Path tmpEntry = Files.createTempFile(dir, entry.getFileName().toString(), ".tmp");
+        Files.write(tmpEntry, bytes.toByteArray());
+        Files.move(tmpEntry, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        evict();
+    }
+
+    private Path entry(SolverId solverId, Path input) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(codeHash());
+        digest.update(inputHash(input));
+        return dir.resolve(solverId + "-" + HexFormat.of().formatHex(digest.digest()) + ENTRY_SUFFIX);
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(dir)) {
+            entries = new ArrayList<>(files.filter(path -> path.toString().endsWith(ENTRY_SUFFIX)).toList());
+        }
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+
+        Map<Path, FileTime> accessTimes = new HashMap<>();
+        for (var entry : entries) {
+            try {
+                accessTimes.put(entry, Files.getLastModifiedTime(entry));
+            } catch (NoSuchFileException e) {
+                // evicted by another process
+            }
+        }
+        entries.removeIf(entry -> !accessTimes.containsKey(entry));
+        entries.sort(Comparator.comparing(accessTimes::get));
+
+        for (int i = 0; i < entries.size() - maxEntries; ++i) {
+            Files.deleteIfExists(entries.get(i));
+        }
+    }
+
+    private byte[] codeHash() throws IOException {
+        byte[] hash = codeHash;
+        if (hash == null) {
+            // racing threads compute the same hash
+            hash = hashClasses(getResource(CODE_ROOT));
+            codeHash = hash;
+        }
+        return hash;
+    }
+
+    private static byte[] hashClasses(Path root) throws IOException {
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(root)) {
+            classFiles = files.filter(path -> path.toString().endsWith(".class"))
+                    .sorted(Comparator.comparing(path -> root.relativize(path).toString()))
+                    .toList();
+        }
+
+        MessageDigest digest = newDigest();
+        for (var classFile : classFiles) {
+            digest.update(root.relativize(classFile).toString().getBytes());
+            digest.update(Files.readAllBytes(classFile));
+        }
+        return digest.digest();
+    }
+
+    private byte[] inputHash(Path input) throws IOException {
+        long size = Files.size(input);
+        FileTime modified = Files.getLastModifiedTime(input);
+
+        InputHash hash = inputHashes.get(input);
+        if (hash == null || hash.size != size || !hash.modified.equals(modified)) {
+            hash = new InputHash(size, modified, hashContents(input));
+            inputHashes.put(input, hash);
+        }
+        return hash.hash;
+    }
+
+    private static byte[] hashContents(Path input) throws IOException {
+        MessageDigest digest = newDigest();
+
+        // resources inside a jar can't be mapped
+        if (input.getFileSystem() != FileSystems.getDefault()) {
+            digest.update(Files.readAllBytes(input));
+            return digest.digest();
+        }
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long start = 0; start < size; start += HASH_CHUNK_SIZE) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(HASH_CHUNK_SIZE, size - start)));
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    private record InputHash(long size, FileTime modified, byte[] hash) {
+    }
+}
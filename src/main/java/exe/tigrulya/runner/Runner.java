@@ -0,0 +1,177 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.SolverId;
+import exe.tigrulya.generator.InputGenerators;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every discovered solver concurrently and prints a timing table:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.Runner [--executor=platform|virtual] [--threads=N]
+ *     [--scale=N] [--verbose] [--cache] [day16 | day16.Task1 ...]
+ * </pre>
+ * Solvers' own output is muted unless {@code --verbose} is set, results are taken from {@code solve} instead.
+ * With {@code --cache} results of unchanged solvers on unchanged inputs are read from {@link ResultCache#DEFAULT_DIR}.
+ */
+public class Runner {
+    public enum ExecutorType {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public record Options(ExecutorType executorType, int threads, int scale, boolean verbose, boolean cache,
+                          List<String> filters) {
+        public static Options parse(String[] args) {
+            ExecutorType executorType = ExecutorType.PLATFORM;
+            int threads = Runtime.getRuntime().availableProcessors();
+            int scale = 1;
+            boolean verbose = false;
+            boolean cache = false;
+            List<String> filters = new ArrayList<>();
+
+            for (var arg : args) {
+                if (arg.startsWith("--executor=")) {
+                    executorType = ExecutorType.valueOf(value(arg).toUpperCase());
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(value(arg));
+                } else if (arg.startsWith("--scale=")) {
+                    scale = Integer.parseInt(value(arg));
+                } else if (arg.equals("--verbose")) {
+                    verbose = true;
+                } else if (arg.equals("--cache")) {
+                    cache = true;
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                } else {
+                    filters.add(arg);
+                }
+            }
+
+            return new Options(executorType, threads, scale, verbose, cache, filters);
+        }
+
+        public boolean matches(SolverId solverId) {
+            return filters.isEmpty() || filters.stream()
+                    .anyMatch(filter -> filter.equals(solverId.toString())
+                            || filter.equals("day" + solverId.day()));
+        }
+
+        public ExecutorService newExecutor() {
+            return switch (executorType) {
+                case PLATFORM -> Executors.newFixedThreadPool(threads);
+                case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            };
+        }
+
+        private static String value(String arg) {
+            return arg.substring(arg.indexOf('=') + 1);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<SolverId> solverIds = SolverId.discover()
+                .stream()
+                .filter(options::matches)
+                .toList();
+
+        long start = System.nanoTime();
+        List<SolverRun> runs = runAll(solverIds, options);
+        long wallNanos = System.nanoTime() - start;
+
+        printReport(runs, wallNanos, System.out);
+        if (runs.stream().anyMatch(run -> !run.succeeded())) {
+            System.exit(1);
+        }
+    }
+
+    public static List<SolverRun> runAll(List<SolverId> solverIds, Options options) throws Exception {
+        // inputs are resolved upfront, so scaled ones are generated once and outside of the measurements
+        List<Path> inputs = new ArrayList<>();
+        for (var solverId : solverIds) {
+            inputs.add(InputGenerators.resolve(solverId, options.scale));
+        }
+
+        ResultCache cache = options.cache
+                ? new ResultCache(ResultCache.DEFAULT_DIR, ResultCache.DEFAULT_MAX_ENTRIES)
+                : null;
+
+        PrintStream stdout = System.out;
+        if (!options.verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        try (ExecutorService executor = options.newExecutor()) {
+            List<Future<SolverRun>> futures = new ArrayList<>();
+            for (int i = 0; i < solverIds.size(); ++i) {
+                SolverId solverId = solverIds.get(i);
+                Path input = inputs.get(i);
+                futures.add(executor.submit(() -> SolverRun.run(solverId, input, cache)));
+            }
+
+            List<SolverRun> runs = new ArrayList<>();
+            for (var future : futures) {
+                runs.add(getUninterruptibly(future));
+            }
+            return runs;
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    public static void printReport(List<SolverRun> runs, long wallNanos, PrintStream out) {
+        String rowFormat = "%-12s %10s %10s %10s %10s %12s  %s%n";
+        out.printf(rowFormat, "Solver", "Parse ms", "Solve ms", "Wall ms", "CPU ms", "Allocated", "Result");
+
+        long totalNanos = 0;
+        for (var run : runs) {
+            totalNanos += run.wallNanos();
+            out.printf(rowFormat,
+                    run.solverId(),
+                    millis(run.parseNanos()),
+                    millis(run.solveNanos()),
+                    millis(run.wallNanos()),
+                    run.cpuNanos() < 0 ? "-" : millis(run.cpuNanos()),
+                    run.allocatedBytes() < 0 ? "-" : bytes(run.allocatedBytes()),
+                    run.succeeded() ? result(run) : "FAILED: " + run.error());
+        }
+
+        out.printf("%nTotal: %s ms wall, %s ms summed over %d solvers%n",
+                millis(wallNanos), millis(totalNanos), runs.size());
+    }
+
+    private static SolverRun getUninterruptibly(Future<SolverRun> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // SolverRun catches everything thrown by solvers
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String result(SolverRun run) {
+        return run.cached() ? run.result() + " (cached)" : String.valueOf(run.result());
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return bytes < 1024L * 1024 * 1024
+                ? String.format("%.1f MB", bytes / (1024.0 * 1024))
+                : String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+}
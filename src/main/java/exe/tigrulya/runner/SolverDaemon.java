@@ -0,0 +1,229 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+import exe.tigrulya.StreamingSolver;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static exe.tigrulya.Utils.getResource;
+
+/**
+ * Keeps solvers loaded and JIT-compiled between runs, serving requests over a Unix domain socket:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.runner.SolverDaemon [--socket=target/solver.sock] [--warmup=N] [--verbose]
+ * </pre>
+ * Every request is a single line answered by a single line, several requests may share a connection:
+ * <pre>
+ * day16.Task1 /path/to/input.txt      -> OK &lt;solve micros&gt; &lt;result&gt;
+ * day16.Task1 - &lt;length&gt;\n&lt;bytes&gt;     -> same, for input sent inline
+ * stop                                -> OK, then the daemon exits
+ * </pre>
+ * Failures are answered with {@code ERROR <message>}. Connections are served on virtual threads,
+ * solvers aren't thread safe, so every request gets a fresh instance of an already loaded and warm class.
+ * See {@link DaemonClient} for a client.
+ */
+public class SolverDaemon {
+    public static final Path DEFAULT_SOCKET = Path.of("target", "solver.sock");
+
+    private static final int MAX_INLINE_INPUT = 256 * 1024 * 1024;
+
+    private final List<SolverId> solverIds;
+    private final ServerSocketChannel server;
+
+    private SolverDaemon(List<SolverId> solverIds, ServerSocketChannel server) {
+        this.solverIds = solverIds;
+        this.server = server;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path socket = DEFAULT_SOCKET;
+        int warmupRuns = 1;
+        boolean verbose = false;
+        for (var arg : args) {
+            if (arg.startsWith("--socket=")) {
+                socket = Path.of(arg.substring(arg.indexOf('=') + 1));
+            } else if (arg.startsWith("--warmup=")) {
+                warmupRuns = Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+            } else if (arg.equals("--verbose")) {
+                verbose = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        PrintStream log = System.err;
+        if (!verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        List<SolverId> solverIds = SolverId.discover();
+        long start = System.nanoTime();
+        for (int i = 0; i < warmupRuns; ++i) {
+            for (var solverId : solverIds) {
+                SolverRun run = SolverRun.run(solverId, getResource(solverId.inputResource()));
+                if (!run.succeeded()) {
+                    log.println("Warmup of " + solverId + " failed: " + run.error());
+                }
+            }
+        }
+        log.printf("Loaded %d solvers, %d warmup runs took %d ms%n",
+                solverIds.size(), warmupRuns, (System.nanoTime() - start) / 1_000_000);
+
+        Files.deleteIfExists(socket);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            Path boundSocket = socket;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteQuietly(boundSocket)));
+
+            log.println("Listening on " + socket.toAbsolutePath());
+            new SolverDaemon(solverIds, server).serve();
+        } finally {
+            deleteQuietly(socket);
+        }
+    }
+
+    private void serve() throws IOException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                SocketChannel connection;
+                try {
+                    connection = server.accept();
+                } catch (ClosedChannelException e) {
+                    // closed by a stop request
+                    return;
+                }
+                executor.submit(() -> handle(connection));
+            }
+        }
+    }
+
+    private void handle(SocketChannel connection) {
+        try (connection;
+             InputStream in = new BufferedInputStream(Channels.newInputStream(connection));
+             OutputStream out = Channels.newOutputStream(connection)) {
+            String request;
+            while ((request = readLine(in)) != null) {
+                if (request.isBlank()) {
+                    continue;
+                }
+                if (request.equals("stop")) {
+                    respond(out, "OK");
+                    server.close();
+                    return;
+                }
+                respond(out, answer(request, in));
+            }
+        } catch (IOException e) {
+            // client went away, nothing to answer to
+        }
+    }
+
+    private String answer(String request, InputStream in) throws IOException {
+        String[] parts = request.trim().split("\\s+");
+        if (parts.length < 2 || parts[1].equals("-") && parts.length != 3) {
+            return "ERROR Malformed request: " + request;
+        }
+
+        byte[] inlineInput;
+        try {
+            // inline input has to be consumed even if the solver turns out to be unknown
+            inlineInput = parts[1].equals("-") ? readInput(in, Integer.parseInt(parts[2])) : null;
+        } catch (NumberFormatException e) {
+            return "ERROR Malformed input length: " + parts[2];
+        }
+
+        try {
+            SolverId solverId = SolverId.parse(parts[0]);
+            if (!solverIds.contains(solverId)) {
+                return "ERROR Unknown solver: " + parts[0];
+            }
+
+            long start = System.nanoTime();
+            Object result = inlineInput == null
+                    ? solve(solverId, Path.of(parts[1]))
+                    : solve(solverId, inlineInput);
+            long micros = (System.nanoTime() - start) / 1000;
+            return "OK " + micros + " " + String.valueOf(result).replace('\n', ' ');
+        } catch (Exception e) {
+            return "ERROR " + String.valueOf(e).replace('\n', ' ');
+        }
+    }
+
+    private static Object solve(SolverId solverId, Path input) throws IOException {
+        Solver<Object, Object> solver = solverId.create();
+        return solver.solveRecorded(solver.parseRecorded(input));
+    }
+
+    private static Object solve(SolverId solverId, byte[] input) throws IOException {
+        Solver<Object, Object> solver = solverId.create();
+        if (solver instanceof StreamingSolver<?> streamingSolver) {
+            return streamingSolver.solve(Channels.newChannel(new ByteArrayInputStream(input)));
+        }
+
+        // the rest of the solvers parse files, so inline input is staged in a temporary one
+        Path tmpInput = Files.createTempFile("solver-daemon-", ".txt");
+        try {
+            Files.write(tmpInput, input);
+            return solver.solveRecorded(solver.parseRecorded(tmpInput));
+        } finally {
+            Files.deleteIfExists(tmpInput);
+        }
+    }
+
+    private static byte[] readInput(InputStream in, int size) throws IOException {
+        if (size < 0 || size > MAX_INLINE_INPUT) {
+            throw new IOException("Inline input of " + size + " bytes isn't accepted");
+        }
+
+        byte[] input = in.readNBytes(size);
+        if (input.length != size) {
+            throw new EOFException("Expected " + size + " bytes of input, got " + input.length);
+        }
+        return input;
+    }
+
+    static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int value;
+        while ((value = in.read()) != -1 && value != '\n') {
+            line.write(value);
+        }
+        if (value == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(OutputStream out, String response) throws IOException {
+        out.write((response + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void deleteQuietly(Path socket) {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            // left for the next start to clean up
+        }
+    }
+}
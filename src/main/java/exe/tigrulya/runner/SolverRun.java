@@ -0,0 +1,125 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.Solver;
+import exe.tigrulya.SolverId;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Outcome of a single parse and solve of one puzzle part.
+ * CPU time and allocated bytes are -1 when the JVM can't measure them for the running thread,
+ * e.g. for virtual threads. Cached runs report zero timings for the lookup.
+ */
+public record SolverRun(
+        SolverId solverId,
+        Object result,
+        Throwable error,
+        long parseNanos,
+        long solveNanos,
+        long cpuNanos,
+        long allocatedBytes,
+        boolean cached) {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static SolverRun run(SolverId solverId, Path input) {
+        return run(solverId, input, null);
+    }
+
+    /**
+     * Returns the result stored in {@code cache} if there is one, otherwise solves the input and stores the result.
+     * Cache failures never fail the run, the solver is just invoked as if there were no cache.
+     */
+    public static SolverRun run(SolverId solverId, Path input, ResultCache cache) {
+        if (cache != null) {
+            try {
+                Optional<Object> cachedResult = cache.get(solverId, input);
+                if (cachedResult.isPresent()) {
+                    return new SolverRun(solverId, cachedResult.get(), null, 0, 0, 0, 0, true);
+                }
+            } catch (IOException e) {
+                cache = null;
+            }
+        }
+
+        SolverRun run = measure(solverId, solverId::create, input);
+        if (cache != null && run.succeeded()) {
+            try {
+                cache.put(solverId, input, run.result);
+            } catch (IOException e) {
+                // result is still valid, it just won't be reused
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Solves the input with an existing instance, e.g. one kept per thread to reuse whatever scratch state it holds.
+     */
+    public static SolverRun run(SolverId solverId, Solver<Object, Object> solver, Path input) {
+        return measure(solverId, () -> solver, input);
+    }
+
+    private static SolverRun measure(SolverId solverId, Supplier<Solver<Object, Object>> solvers, Path input) {
+        long startCpu = currentThreadCpuTime();
+        long startAllocated = currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long parsed = start;
+
+        Object result = null;
+        Throwable error = null;
+        try {
+            Solver<Object, Object> solver = solvers.get();
+            Object parsedInput = solver.parseRecorded(input);
+            parsed = System.nanoTime();
+            result = solver.solveRecorded(parsedInput);
+        } catch (Throwable e) {
+            error = e;
+        }
+
+        long end = System.nanoTime();
+        if (parsed == start) {
+            parsed = end;
+        }
+
+        return new SolverRun(
+                solverId,
+                result,
+                error,
+                parsed - start,
+                end - parsed,
+                difference(startCpu, currentThreadCpuTime()),
+                difference(startAllocated, currentThreadAllocatedBytes()),
+                false
+        );
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+
+    public long wallNanos() {
+        return parseNanos + solveNanos;
+    }
+
+    private static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+                ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+                : -1;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes()
+                : -1;
+    }
+
+    private static long difference(long start, long end) {
+        return start < 0 || end < 0 ? -1 : end - start;
+    }
+}
@@ -0,0 +1,38 @@
+package exe.tigrulya.runner;
+
+import exe.tigrulya.SolverId;
+import exe.tigrulya.StreamingSolver;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Runs a {@link StreamingSolver} over stdin or a file:
+ * <pre>
+ * java -cp target/classes exe.tigrulya.generator.InputGenerators 2 1000 - \
+ *     | java -cp target/classes exe.tigrulya.runner.StreamingRunner day2.Task2
+ * </pre>
+ */
+public class StreamingRunner {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: StreamingRunner <dayN.TaskM> [input, stdin by default]");
+            System.exit(1);
+        }
+
+        SolverId solverId = SolverId.parse(args[0]);
+        if (!(solverId.create() instanceof StreamingSolver<?> solver)) {
+            throw new IllegalArgumentException(solverId + " can't solve streamed input");
+        }
+
+        try (ReadableByteChannel input = args.length == 2
+                ? FileChannel.open(Path.of(args[1]), StandardOpenOption.READ)
+                : Channels.newChannel(System.in)) {
+            System.out.println("Result: " + solver.solve(input));
+        }
+    }
+}
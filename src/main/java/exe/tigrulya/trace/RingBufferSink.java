@@ -0,0 +1,95 @@
+package exe.tigrulya.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of messages written out by a daemon thread.
+ * Producers never wait: when the ring is full the message is dropped and counted instead.
+ */
+public class RingBufferSink implements Trace.Sink {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    // next sequence to be claimed by producers
+    private final AtomicLong tail = new AtomicLong();
+    // next sequence to be consumed, written by the consumer thread only
+    private volatile long head;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Consumer<String> output;
+
+    public RingBufferSink(int capacity, Consumer<String> output) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity should be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.output = output;
+    }
+
+    /**
+     * Ring writing to the current stdout, drained until the JVM exits.
+     */
+    static RingBufferSink startDefault() {
+        RingBufferSink sink = new RingBufferSink(DEFAULT_CAPACITY, message -> System.out.println(message));
+        Thread consumer = Thread.ofPlatform()
+                .daemon()
+                .name("trace-writer")
+                .start(sink::drainForever);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            consumer.interrupt();
+            sink.drain();
+        }));
+        return sink;
+    }
+
+    @Override
+    public void write(String message) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        slots.lazySet((int) sequence & mask, message);
+    }
+
+    /**
+     * Writes out everything published so far.
+     *
+     * @return number of written messages
+     */
+    public synchronized int drain() {
+        int written = 0;
+        long sequence = head;
+        String message;
+        // a claimed slot may still be empty while its producer is publishing, it's picked up by the next drain
+        while ((message = slots.get((int) sequence & mask)) != null) {
+            slots.lazySet((int) sequence & mask, null);
+            head = ++sequence;
+            output.accept(message);
+            ++written;
+        }
+
+        long droppedMessages = dropped.getAndSet(0);
+        if (droppedMessages > 0) {
+            output.accept("... " + droppedMessages + " trace messages dropped");
+        }
+        return written;
+    }
+
+    private void drainForever() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package exe.tigrulya.trace;
+
+import java.util.Locale;
+
+/**
+ * Leveled diagnostics for solvers, configured once at startup:
+ * <pre>
+ * java -Daoc.trace=debug [-Daoc.trace.async=true] ...
+ * </pre>
+ * Level flags are static final, so the JIT treats them as constants and drops guarded call sites entirely
+ * while tracing is off. Guard every call, so arguments aren't boxed and formatted for nothing:
+ * <pre>
+ * if (Trace.DEBUG) {
+ *     Trace.debug("Blink #%d size: %d", blink, count);
+ * }
+ * </pre>
+ * Messages go straight to stdout by default, or through a {@link RingBufferSink} drained by a background thread
+ * when {@code aoc.trace.async} is set, so a slow console never stalls the solver.
+ */
+public final class Trace {
+    public enum Level {
+        OFF,
+        INFO,
+        DEBUG,
+        TRACE
+    }
+
+    public static final Level LEVEL = Level.valueOf(System.getProperty("aoc.trace", "off").toUpperCase(Locale.ROOT));
+
+    public static final boolean INFO = LEVEL.compareTo(Level.INFO) >= 0;
+    public static final boolean DEBUG = LEVEL.compareTo(Level.DEBUG) >= 0;
+    public static final boolean TRACE = LEVEL.compareTo(Level.TRACE) >= 0;
+
+    private static final Sink SINK = createSink();
+
+    private Trace() {
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        void write(String message);
+    }
+
+    public static void info(String format, Object... args) {
+        if (INFO) {
+            SINK.write(format(format, args));
+        }
+    }
+
+    public static void debug(String format, Object... args) {
+        if (DEBUG) {
+            SINK.write(format(format, args));
+        }
+    }
+
+    public static void trace(String format, Object... args) {
+        if (TRACE) {
+            SINK.write(format(format, args));
+        }
+    }
+
+    private static Sink createSink() {
+        if (LEVEL == Level.OFF) {
+            return message -> {
+            };
+        }
+        return Boolean.getBoolean("aoc.trace.async")
+                ? RingBufferSink.startDefault()
+                : message -> System.out.println(message);
+    }
+
+    private static String format(String format, Object... args) {
+        return args.length == 0 ? format : String.format(format, args);
+    }
+}
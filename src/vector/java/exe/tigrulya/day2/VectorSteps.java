@@ -0,0 +1,32 @@
+package exe.tigrulya.day2;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector lanes for {@link SafetyBatch}, compiled by the {@code vector} profile only and loaded when the incubator
+ * module is in the boot layer. Lane counts divide 64, so the masks of whole vectors never span two words.
+ */
+final class VectorSteps implements SafetyBatch.StepClassifier {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public int classify(long[] levels, int pairs, long[] increasing, long[] decreasing) {
+        int bound = SPECIES.loopBound(pairs);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            LongVector steps = LongVector.fromArray(SPECIES, levels, i + 1)
+                    .sub(LongVector.fromArray(SPECIES, levels, i));
+            // a single unsigned comparison checks both bounds of a range
+            long up = steps.sub(SafetyBatch.MIN_STEP)
+                    .compare(VectorOperators.UNSIGNED_LT, SafetyBatch.STEP_RANGE)
+                    .toLong();
+            long down = steps.add(SafetyBatch.MAX_STEP)
+                    .compare(VectorOperators.UNSIGNED_LT, SafetyBatch.STEP_RANGE)
+                    .toLong();
+            increasing[i >>> 6] |= up << i;
+            decreasing[i >>> 6] |= down << i;
+        }
+        return bound;
+    }
+}